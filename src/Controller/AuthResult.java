@@ -0,0 +1,43 @@
+package Controller;
+
+import Model.User;
+
+// Outcome of SQLite.authenticate()
+public class AuthResult {
+
+    public enum Status {
+        SUCCESS,                // credentials valid, counter reset, login logged
+        INVALID_CREDENTIALS,    // unknown user or wrong password, counter incremented
+        LOCKED_OUT,             // wrong password and this attempt locked the account
+        ACCOUNT_LOCKED,         // credentials valid but the account was already locked
+        ERROR                   // database failure, nothing was changed
+    }
+
+    private final Status status;
+    private final User user;
+    private final int failedAttempts;
+
+    public AuthResult(Status status, User user, int failedAttempts) {
+        this.status = status;
+        this.user = user;
+        this.failedAttempts = failedAttempts;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    // Logged in user, only set on SUCCESS
+    public User getUser() {
+        return user;
+    }
+
+    // Consecutive failed attempts after this one
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+}
@@ -0,0 +1,119 @@
+package Controller;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.mindrot.jbcrypt.BCrypt;
+
+// BCrypt hasher with a fixed cost (log2 rounds).
+// Also verifies the unsalted SHA-256 hex hashes written by older builds, which always need a rehash.
+public class BCryptPasswordHasher implements PasswordHasher {
+
+    public static final int MIN_COST = 10;
+    public static final int MAX_COST = 16;
+
+    private final int cost;
+
+    public BCryptPasswordHasher(int cost) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31");
+        }
+        this.cost = cost;
+    }
+
+    // Pick the highest cost whose verification takes no longer than targetMillis on this machine,
+    // never lower than MIN_COST nor higher than MAX_COST. Each step up doubles the work, so this
+    // measures at most about twice the target.
+    public static BCryptPasswordHasher calibrate(long targetMillis) {
+        String sample = "calibration-" + System.nanoTime();
+        // Warm up the JIT so the first measurement is not inflated
+        BCrypt.checkpw(sample, BCrypt.hashpw(sample, BCrypt.gensalt(4)));
+
+        int chosen = MIN_COST;
+        for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+            String hash = BCrypt.hashpw(sample, BCrypt.gensalt(cost));
+            long start = System.nanoTime();
+            BCrypt.checkpw(sample, hash);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (elapsedMillis > targetMillis && cost > MIN_COST) {
+                break;
+            }
+            chosen = cost;
+            if (elapsedMillis * 2 > targetMillis) {
+                break; // The next cost would overshoot
+            }
+        }
+        return new BCryptPasswordHasher(chosen);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String hash(String plainTextPassword) {
+        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(cost));
+    }
+
+    @Override
+    public boolean verify(String plainTextPassword, String storedHash) {
+        if (storedHash == null) {
+            return false;
+        }
+        if (isLegacySha256(storedHash)) {
+            return MessageDigest.isEqual(sha256Hex(plainTextPassword).getBytes(StandardCharsets.US_ASCII),
+                    storedHash.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+        }
+        try {
+            return BCrypt.checkpw(plainTextPassword, storedHash);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return costOf(storedHash) != cost;
+    }
+
+    // Cost encoded in a "$2a$NN$..." hash, or -1 if it is not a BCrypt hash
+    public static int costOf(String storedHash) {
+        if (storedHash == null || storedHash.length() < 7 || !storedHash.startsWith("$2")) {
+            return -1;
+        }
+        int end = storedHash.indexOf('$', 3);
+        if (end < 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(storedHash.substring(end + 1, end + 3));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+            return -1;
+        }
+    }
+
+    private static boolean isLegacySha256(String storedHash) {
+        return storedHash.length() == 64 && storedHash.matches("[0-9a-fA-F]+");
+    }
+
+    // Legacy hashes were made with the platform default charset, so verify them the same way;
+    // a successful login then rehashes the account with BCrypt
+    private static String sha256Hex(String plainTextPassword) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashBytes = digest.digest(plainTextPassword.getBytes(Charset.defaultCharset()));
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hashBytes) {
+                String hex = Integer.toHexString(0xff & b);
+                if (hex.length() == 1) {
+                    hexString.append('0');
+                }
+                hexString.append(hex);
+            }
+            return hexString.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package Controller;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+// Lets one thread abort the queries another thread runs for it, e.g. a search that went stale
+// because the user kept typing. While work passed to run() executes, SQLite registers each query
+// statement here; cancel() then interrupts the running one (Statement.cancel) and makes any later
+// one fail before it starts. A cancelled query fails like any other database error, so the SQLite
+// call returns an empty result.
+public class Cancellation {
+
+    private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+    private static final Registration NONE = () -> { };
+
+    // Statement registered by a query while it runs, closed before its connection goes back to the pool
+    interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private Statement running;
+    private boolean cancelled = false;
+
+    // Run work on this thread with its queries bound to this cancellation
+    public <T> T run(Supplier<T> work) {
+        Cancellation outer = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.set(outer);
+        }
+    }
+
+    public synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (running != null) {
+            try {
+                running.cancel();
+            } catch (SQLException ex) {
+                // The query finishes normally and its result is ignored
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Run work on this thread with no cancellation, for lookups whose result is cached
+    static <T> T uncancellable(Supplier<T> work) {
+        Cancellation outer = CURRENT.get();
+        CURRENT.remove();
+        try {
+            return work.get();
+        } finally {
+            CURRENT.set(outer);
+        }
+    }
+
+    // Register statement with the cancellation bound to this thread, if any, before executing it
+    static Registration register(Statement statement) throws SQLException {
+        Cancellation current = CURRENT.get();
+        return current == null ? NONE : current.attach(statement);
+    }
+
+    private synchronized Registration attach(Statement statement) throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query cancelled");
+        }
+        running = statement;
+        return this::detach;
+    }
+
+    private synchronized void detach() {
+        running = null;
+    }
+}
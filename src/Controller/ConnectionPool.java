@@ -0,0 +1,404 @@
+package Controller;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded pool of long-lived SQLite connections.
+// Callers use getConnection() exactly like DriverManager.getConnection(): closing the
+// returned connection hands it back to the pool instead of closing the database file.
+public class ConnectionPool {
+
+    private final String driverURL;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int busyTimeoutMillis;
+    private final int statementCacheSize;
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    private final BlockingQueue<PooledConnection> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    // Connection pinned to a thread by bind(); getConnection() on that thread shares it
+    private final ThreadLocal<Binding> bound = new ThreadLocal<>();
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong discardCount = new AtomicLong();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    public ConnectionPool(String driverURL, int maxSize) {
+        this(driverURL, maxSize, 5000, 30000, 5000, 32);
+    }
+
+    public ConnectionPool(String driverURL, int maxSize, long borrowTimeoutMillis,
+                          long validationIntervalMillis, int busyTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.driverURL = driverURL;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    // Borrow a connection, opening a new one only while the pool is below its maximum size
+    public Connection getConnection() throws SQLException {
+        Binding binding = bound.get();
+        if (binding != null) {
+            return binding.view();
+        }
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        PooledConnection pooled = null;
+        while (pooled == null) {
+            pooled = idle.poll();
+            if (pooled != null) {
+                if (validate(pooled)) {
+                    break;
+                }
+                discard(pooled);
+                pooled = null;
+                continue;
+            }
+            if (tryReserveSlot()) {
+                try {
+                    pooled = open();
+                } catch (SQLException ex) {
+                    created.decrementAndGet();
+                    throw ex;
+                }
+                break;
+            }
+            long waited = System.nanoTime() - start;
+            long remaining = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis) - waited;
+            if (remaining <= 0) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection");
+            }
+            try {
+                // Wake up periodically in case a discarded connection freed a slot
+                pooled = idle.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(50)), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", ex);
+            }
+            if (pooled != null && !validate(pooled)) {
+                discard(pooled);
+                pooled = null;
+            }
+        }
+        recordBorrow(System.nanoTime() - start);
+        return pooled.lease();
+    }
+
+    // Borrow a connection and pin it to the calling thread until unbind(). While bound, every
+    // getConnection() on this thread returns a view of it whose close(), commit() and
+    // setAutoCommit() do nothing, so DAO methods join the caller's transaction; a plain
+    // rollback() through a view marks the binding rollback-only instead.
+    public Connection bind() throws SQLException {
+        if (bound.get() != null) {
+            throw new SQLException("A connection is already bound to this thread");
+        }
+        Connection conn = getConnection();
+        bound.set(new Binding(conn));
+        return conn;
+    }
+
+    // Release the thread's binding (the caller still closes the connection bind() returned).
+    // Returns true if the work done under it asked for a rollback.
+    public boolean unbind() {
+        Binding binding = bound.get();
+        bound.remove();
+        return binding != null && binding.rollbackOnly;
+    }
+
+    // Ask for the bound transaction to be rolled back, if this thread has one
+    public void markRollbackOnly() {
+        Binding binding = bound.get();
+        if (binding != null) {
+            binding.rollbackOnly = true;
+        }
+    }
+
+    // Close every idle connection and refuse further borrowing; leased connections close on return
+    public void close() {
+        closed = true;
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            discard(pooled);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getInUseCount() {
+        return inUse.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getOpenCount() {
+        return created.get();
+    }
+
+    public int getPeakInUseCount() {
+        return peakInUse.get();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getDiscardCount() {
+        return discardCount.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long count = borrowCount.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / (double) count / 1_000_000.0;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getStatementCacheHits() {
+        return statementStats.hits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementStats.misses.get();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementStats.evictions.get();
+    }
+
+    public double getStatementCacheHitRate() {
+        return statementStats.hitRate();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[open=%d/%d, inUse=%d, peakInUse=%d, idle=%d, borrows=%d, "
+                + "avgWait=%.3fms, maxWait=%.3fms, timeouts=%d, discarded=%d, "
+                + "stmtCache(hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%)]",
+                getOpenCount(), maxSize, getInUseCount(), getPeakInUseCount(), getIdleCount(),
+                getBorrowCount(), getAverageWaitMillis(), getMaxWaitMillis(), getTimeoutCount(), getDiscardCount(),
+                getStatementCacheHits(), getStatementCacheMisses(), getStatementCacheEvictions(),
+                getStatementCacheHitRate() * 100);
+    }
+
+    private boolean tryReserveSlot() {
+        while (true) {
+            int current = created.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (created.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(driverURL);
+        try (Statement stmt = raw.createStatement()) {
+            // Let concurrent writers wait for the lock instead of failing with SQLITE_BUSY
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+        }
+        return new PooledConnection(raw);
+    }
+
+    // Health check: connections idle longer than the validation interval are pinged before reuse
+    private boolean validate(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return !pooled.raw.isClosed() && pooled.raw.isValid(1);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void recordBorrow(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        long max;
+        while (waitNanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+            // retry
+        }
+        int active = inUse.incrementAndGet();
+        int peak;
+        while (active > (peak = peakInUse.get()) && !peakInUse.compareAndSet(peak, active)) {
+            // retry
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        inUse.decrementAndGet();
+        boolean healthy;
+        try {
+            healthy = !pooled.raw.isClosed();
+            if (healthy && !pooled.raw.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                pooled.raw.rollback();
+                pooled.raw.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            healthy = false;
+        }
+        pooled.lastUsed = System.currentTimeMillis();
+        if (!healthy || closed || !idle.offer(pooled)) {
+            discard(pooled);
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        discardCount.incrementAndGet();
+        created.decrementAndGet();
+        try {
+            pooled.raw.close();
+        } catch (SQLException ex) {
+            // Already unusable, nothing else to do
+        }
+    }
+
+    // A physical connection owned by the pool
+    private class PooledConnection {
+
+        final Connection raw;
+        final StatementCache statements;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = new StatementCache(raw, statementCacheSize, statementStats);
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+    }
+
+    // A connection pinned to one thread by bind()
+    private static class Binding implements InvocationHandler {
+
+        final Connection conn;
+        boolean rollbackOnly = false;
+
+        Binding(Connection conn) {
+            this.conn = conn;
+        }
+
+        Connection view() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            int argc = args == null ? 0 : args.length;
+            if ("close".equals(name) || "commit".equals(name) || "setAutoCommit".equals(name)) {
+                return null; // Owned by whoever called bind()
+            }
+            if ("rollback".equals(name) && argc == 0) {
+                rollbackOnly = true;
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return conn.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(conn, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    // The handle given to callers; close() returns the connection instead of closing it
+    private class Lease implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                if (!returned) {
+                    returned = true;
+                    release(pooled);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return returned || pooled.raw.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return "PooledConnection[" + pooled.raw + "]";
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(name) && args.length == 1) {
+                return pooled.statements.prepare((String) args[0]);
+            }
+            try {
+                return method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
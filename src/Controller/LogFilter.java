@@ -0,0 +1,49 @@
+package Controller;
+
+import java.sql.Timestamp;
+
+// Criteria for SQLite.searchLogs(); a null or empty criterion matches every entry
+public class LogFilter {
+
+    public static final LogFilter ALL = new LogFilter(null, null, null, null, null);
+
+    private final String event;
+    private final String username;
+    private final Timestamp from;
+    private final Timestamp to;
+    private final String text;
+
+    // Entries with this event and username, logged between from and to (both inclusive),
+    // whose description has words starting with every word of text
+    public LogFilter(String event, String username, Timestamp from, Timestamp to, String text) {
+        this.event = blankToNull(event);
+        this.username = blankToNull(username);
+        this.from = from;
+        this.to = to;
+        this.text = blankToNull(text);
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Timestamp getFrom() {
+        return from;
+    }
+
+    public Timestamp getTo() {
+        return to;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
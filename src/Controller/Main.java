@@ -5,75 +5,271 @@ import Model.Logs;
 import Model.Product;
 import Model.User;
 import View.Frame;
+import java.io.File;
 import java.security.NoSuchAlgorithmException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
 
 public class Main {
     
     public SQLite sqlite;
     
+    // Runs password hashing and the database work of a login off the Swing event thread.
+    // One thread per core: BCrypt is CPU bound, more threads would only oversubscribe the CPU.
+    private ExecutorService authWorkers;
+    
+    // Completed once the schema is migrated/seeded and the password hasher is calibrated
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    
     public static void main(String[] args) throws NoSuchAlgorithmException {
         new Main().init();
     }
     
     public void init() throws NoSuchAlgorithmException{
+        StartupTimer timer = new StartupTimer();
+        int cores = Runtime.getRuntime().availableProcessors();
+        
         // Initialize a driver object
         sqlite = new SQLite();
-
-        // Create a database
-        sqlite.createNewDatabase();
+        authWorkers = createAuthWorkers();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+        ExecutorService bootstrap = Executors.newFixedThreadPool(Math.max(2, cores), daemonThreads("bootstrap"));
         
-        // Drop tables if needed (for testing purposes only)
-        sqlite.dropHistoryTable();
-        sqlite.dropLogsTable();
-        sqlite.dropProductTable();
-        sqlite.dropUserTable();
+        // Initialize User Interface on the EDT while the database is prepared; Swing, the look and feel
+        // and the panels load in parallel. Logins wait for ready, so the login panel can show right away.
+        CompletableFuture<Void> interactive = new CompletableFuture<>();
+        SwingUtilities.invokeLater(timer.timed("user interface", () -> {
+            try {
+                Frame frame = new Frame();
+                frame.init(this);
+                timer.mark("time to login panel");
+                interactive.complete(null);
+            } catch (RuntimeException ex) {
+                interactive.completeExceptionally(ex);
+            }
+        }));
         
-        // Create tables if they do not exist
-        sqlite.createHistoryTable();
-        sqlite.createLogsTable();
-        sqlite.createProductTable();
-        sqlite.createUserTable();
+        // Load the JDBC driver and its native library, and create the database file
+        CompletableFuture<Void> database = CompletableFuture.runAsync(timer.timed("open database", () -> {
+            try {
+                Class.forName("org.sqlite.JDBC");
+            } catch (ClassNotFoundException ex) {
+                throw new IllegalStateException("SQLite JDBC driver is missing", ex);
+            }
+            sqlite.createNewDatabase();
+        }), bootstrap);
         
+        // Pick the BCrypt cost for this machine, target verification time in ms (-Dbcrypt.targetMillis)
+        CompletableFuture<BCryptPasswordHasher> hasher = CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            BCryptPasswordHasher calibrated = BCryptPasswordHasher.calibrate(Long.getLong("bcrypt.targetMillis", 250));
+            timer.record("calibrate password hasher", System.nanoTime() - start);
+            System.out.println("BCrypt cost calibrated to " + calibrated.getCost() + ".");
+            return calibrated;
+        }, bootstrap);
+
+        try {
+            database.join();
+            timer.phase("wait for database");
+            
+            // Drop tables only when asked to (-Dapp.resetDatabase=true, for testing purposes only)
+            if (Boolean.getBoolean("app.resetDatabase")) {
+                sqlite.dropHistoryTable();
+                sqlite.dropLogsTable();
+                sqlite.dropProductTable();
+                sqlite.dropUserTable();
+                sqlite.resetSchemaVersion();
+                timer.phase("drop tables");
+            }
+            
+            // Sample users to hash: all of them when the users table is about to be created, or when their
+            // passwords are reset on request (-Dapp.resetSamplePasswords=true, for testing purposes only)
+            boolean resetPasswords = Boolean.getBoolean("app.resetSamplePasswords");
+            List<String[]> seedUsers = !sqlite.hasTable("users") || resetPasswords
+                    ? Arrays.asList(SAMPLE_USERS) : Collections.<String[]>emptyList();
+            timer.phase("detect schema");
+            
+            // Hash the sample passwords across all cores while the tables are created
+            Map<String, CompletableFuture<String>> hashes = new HashMap<>();
+            for (String[] user : seedUsers) {
+                hashes.put(user[0], hasher.thenApplyAsync(timed -> timed.hash(user[1]), bootstrap));
+            }
+            
+            // Create missing tables, migrate and seed in one transaction: a failed step leaves the file untouched
+            Set<String> created = new HashSet<>();
+            boolean committed = sqlite.inTransaction(() -> {
+                if (!sqlite.hasTable("history")) {
+                    sqlite.createHistoryTable();
+                    created.add("history");
+                }
+                if (!sqlite.hasTable("logs")) {
+                    sqlite.createLogsTable();
+                    created.add("logs");
+                }
+                if (!sqlite.hasTable("product")) {
+                    sqlite.createProductTable();
+                    created.add("product");
+                }
+                if (!sqlite.hasTable("users")) {
+                    sqlite.createUserTable();
+                    created.add("users");
+                }
+                
+                // Apply pending schema migrations (indexes)
+                sqlite.migrate();
+                
+                seedSampleData(created, hashes, resetPasswords);
+            });
+            if (!committed) {
+                System.out.println("Error: Database setup failed and was rolled back.");
+            }
+            timer.phase("create, migrate and seed");
+            
+            // Audit events that the write-behind appender of older builds spilled to disk but never wrote
+            int replayed = committed ? sqlite.replayAuditSpill(new File(AUDIT_SPILL_FILE)) : 0;
+            if (replayed > 0) {
+                System.out.println(replayed + " audit events recovered from " + AUDIT_SPILL_FILE + ".");
+                timer.phase("recover audit spill file");
+            }
+            
+            sqlite.setPasswordHasher(hasher.join());
+            timer.phase("wait for password hasher");
+            ready.complete(null);
+        } catch (RuntimeException ex) {
+            ready.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            bootstrap.shutdown();
+        }
+        
+        try {
+            interactive.join();
+        } finally {
+            timer.print();
+        }
+    }
+
+    // Spill file of the audit log appender in older builds, see SQLite.replayAuditSpill()
+    private static final String AUDIT_SPILL_FILE = "database.audit-spill";
+
+    // Sample users: username, password, role
+    private static final String[][] SAMPLE_USERS = {
+        {"admin", "Admin@1234", "5"},
+        {"manager", "Manager@1234", "4"},
+        {"staff", "Staff@1234", "3"},
+        {"client1", "Client1@1234", "2"},
+        {"client2", "Client2@1234", "2"}
+    };
+
+    // Sample data for the tables this run has just created, with the user passwords already being hashed
+    // in parallel. Existing tables are never touched, even when empty: their rows were removed on purpose.
+    private void seedSampleData(Set<String> created, Map<String, CompletableFuture<String>> hashes, boolean resetPasswords) {
         // Add sample history
-        sqlite.addHistory("admin", "Antivirus", 1, "2019-04-03 14:30:00.000");
-        sqlite.addHistory("manager", "Firewall", 1, "2019-04-03 14:30:01.000");
-        sqlite.addHistory("staff", "Scanner", 1, "2019-04-03 14:30:02.000");
+        if (created.contains("history")) {
+            sqlite.addHistory("admin", "Antivirus", 1, "2019-04-03 14:30:00.000");
+            sqlite.addHistory("manager", "Firewall", 1, "2019-04-03 14:30:01.000");
+            sqlite.addHistory("staff", "Scanner", 1, "2019-04-03 14:30:02.000");
+        }
         
         // Add sample logs
-        sqlite.addLogs("NOTICE", "admin", "User creation successful", new Timestamp(new Date().getTime()).toString());
-        sqlite.addLogs("NOTICE", "manager", "User creation successful", new Timestamp(new Date().getTime()).toString());
-        sqlite.addLogs("NOTICE", "admin", "User creation successful", new Timestamp(new Date().getTime()).toString());
+        if (created.contains("logs")) {
+            sqlite.addLogs("NOTICE", "admin", "User creation successful", new Timestamp(new Date().getTime()).toString());
+            sqlite.addLogs("NOTICE", "manager", "User creation successful", new Timestamp(new Date().getTime()).toString());
+            sqlite.addLogs("NOTICE", "admin", "User creation successful", new Timestamp(new Date().getTime()).toString());
+        }
         
         // Add sample product
-        sqlite.addProduct("Antivirus", 5, 500.0);
-        sqlite.addProduct("Firewall", 3, 1000.0);
-        sqlite.addProduct("Scanner", 10, 100.0);
+        if (created.contains("product")) {
+            sqlite.addProduct("Antivirus", 5, 500.0);
+            sqlite.addProduct("Firewall", 3, 1000.0);
+            sqlite.addProduct("Scanner", 10, 100.0);
+        }
+
+        // Add sample users with strong passwords
+        if (created.contains("users")) {
+            for (String[] user : SAMPLE_USERS) {
+                sqlite.addUserWithHash(user[0], hashes.get(user[0]).join(), Integer.parseInt(user[2]));
+            }
+        } else if (resetPasswords) {
+            // Reset the sample accounts that still exist back to their sample passwords
+            for (String[] user : SAMPLE_USERS) {
+                if (sqlite.getUserByUsername(user[0]) != null) {
+                    sqlite.setPasswordHash(user[0], hashes.get(user[0]).join());
+                    System.out.println("Password of sample user " + user[0] + " reset.");
+                }
+            }
+        }
+    }
 
-        // Add sample users with strong passwords and enforce password change on first login
-        String adminPassword = hashPassword("Admin@1234"); // Example of a strong password
-        String managerPassword = hashPassword("Manager@1234");
-        String staffPassword = hashPassword("Staff@1234");
-        String client1Password = hashPassword("Client1@1234");
-        String client2Password = hashPassword("Client2@1234");
+    // Authenticate on the worker pool; completes exceptionally if too many logins are already queued
+    public CompletableFuture<AuthResult> authenticateAsync(String username, String password) {
+        try {
+            // Logins made while startup is still preparing the database wait for it on the pool
+            return ready.thenApplyAsync(done -> sqlite.authenticate(username, password), authWorkers);
+        } catch (RejectedExecutionException ex) {
+            CompletableFuture<AuthResult> busy = new CompletableFuture<>();
+            busy.completeExceptionally(ex);
+            return busy;
+        }
+    }
+
+    // Hash the password and add the user on the worker pool, after startup has prepared the database;
+    // completes exceptionally if too many requests are already queued
+    public CompletableFuture<Void> registerAsync(String username, String password, int role) {
+        try {
+            return ready.thenAcceptAsync(done -> sqlite.addUser(username, password, role), authWorkers);
+        } catch (RejectedExecutionException ex) {
+            CompletableFuture<Void> busy = new CompletableFuture<>();
+            busy.completeExceptionally(ex);
+            return busy;
+        }
+    }
 
-        sqlite.addUser("admin", adminPassword, 5);
-        sqlite.addUser("manager", managerPassword, 4);
-        sqlite.addUser("staff", staffPassword, 3);
-        sqlite.addUser("client1", client1Password, 2);
-        sqlite.addUser("client2", client2Password, 2);
+    // Stop the workers and close the database, runs on JVM exit
+    public void shutdown() {
+        authWorkers.shutdown();
+        try {
+            authWorkers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        sqlite.shutdown();
+    }
 
-        // Initialize User Interface
-        Frame frame = new Frame();
-        frame.init(this);
+    // Helper method to create the bounded, core-sized authentication worker pool
+    private ExecutorService createAuthWorkers() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(cores, cores, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cores * 4),
+                daemonThreads("auth-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
     }
 
-    // Helper method to hash passwords using BCrypt
-    private String hashPassword(String plainTextPassword) {
-        // Implement a basic hashing mechanism (e.g., BCrypt)
-        // For simplicity, we'll use a placeholder hash function here
-        return org.mindrot.jbcrypt.BCrypt.hashpw(plainTextPassword, org.mindrot.jbcrypt.BCrypt.gensalt());
+    // Helper method to name worker threads and keep them from holding the JVM open
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 }
\ No newline at end of file
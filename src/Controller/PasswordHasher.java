@@ -0,0 +1,15 @@
+package Controller;
+
+// Strategy for hashing and checking user passwords
+public interface PasswordHasher {
+
+    // Hash a plain text password for storage
+    String hash(String plainTextPassword);
+
+    // Check a plain text password against a stored hash; malformed hashes never match
+    boolean verify(String plainTextPassword, String storedHash);
+
+    // True when a stored hash was made with other settings (or another scheme) and should be
+    // replaced by hash() the next time the user proves the password
+    boolean needsRehash(String storedHash);
+}
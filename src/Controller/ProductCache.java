@@ -0,0 +1,150 @@
+package Controller;
+
+import Model.Product;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// LRU cache of product catalog rows, looked up by name or by id.
+// SQLite invalidates entries whenever it writes to the product table. Callers always get a
+// copy, so changing a returned Product never changes what the cache holds.
+public class ProductCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<String, Product> byName;
+    private final Map<Integer, Product> byId = new HashMap<>();
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long invalidations = 0;
+    // Bumped by every invalidate, so a row read before a write can't be cached after it
+    private long generation = 0;
+
+    public ProductCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.byName = new LinkedHashMap<String, Product>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Product> eldest) {
+                if (size() > ProductCache.this.maxSize) {
+                    byId.remove(eldest.getValue().getId());
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Cached product with this name, or null on a miss
+    public synchronized Product getByName(String name) {
+        return record(byName.get(name));
+    }
+
+    // Cached product with this id, or null on a miss
+    public synchronized Product getById(int id) {
+        Product product = byId.get(id);
+        if (product != null) {
+            byName.get(product.getName()); // Refresh its LRU position
+        }
+        return record(product);
+    }
+
+    // Current invalidation generation; take it before reading a row to pass to put
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    // Cache a row read from the database, unless an invalidate happened since the read began
+    public synchronized void put(Product product, long readGeneration) {
+        if (readGeneration != generation) {
+            return;
+        }
+        put(product);
+    }
+
+    public synchronized void put(Product product) {
+        if (product == null || product.getName() == null) {
+            return;
+        }
+        Product copy = copy(product);
+        Product previous = byName.put(copy.getName(), copy);
+        if (previous != null) {
+            byId.remove(previous.getId());
+        }
+        byId.put(copy.getId(), copy);
+    }
+
+    public synchronized void invalidate(String name) {
+        generation++;
+        Product removed = byName.remove(name);
+        if (removed != null) {
+            byId.remove(removed.getId());
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidate(int id) {
+        generation++;
+        Product removed = byId.remove(id);
+        if (removed != null) {
+            byName.remove(removed.getName());
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += byName.size();
+        byName.clear();
+        byId.clear();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getSize() {
+        return byName.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getInvalidationCount() {
+        return invalidations;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ProductCache[size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, invalidations=%d]",
+                byName.size(), maxSize, hits, misses, getHitRate() * 100, evictions, invalidations);
+    }
+
+    private Product record(Product cached) {
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copy(cached);
+    }
+
+    private static Product copy(Product product) {
+        return new Product(product.getId(), product.getName(), product.getStock(), product.getPrice());
+    }
+}
@@ -0,0 +1,105 @@
+package Controller;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Forward-only iterator over an open ResultSet. Rows are mapped one at a time as the caller
+// asks for them, so memory stays flat no matter how many rows the query returns.
+// The cursor owns its pooled connection: close it (or exhaust it) to hand the connection back.
+public class RowCursor<T> implements Iterator<T>, AutoCloseable {
+
+    // Maps the current row of a ResultSet to a model object
+    public interface Mapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final PreparedStatement pstmt;
+    private final Cancellation.Registration cancellable;
+    private final ResultSet rs;
+    private final Mapper<T> mapper;
+    private boolean advanced = false;
+    private boolean hasRow = false;
+    private boolean closed = false;
+
+    RowCursor(Connection conn, PreparedStatement pstmt, Cancellation.Registration cancellable, ResultSet rs, Mapper<T> mapper) {
+        this.conn = conn;
+        this.pstmt = pstmt;
+        this.cancellable = cancellable;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!advanced) {
+            try {
+                hasRow = rs.next();
+            } catch (SQLException ex) {
+                close();
+                throw new IllegalStateException("Error reading query results", ex);
+            }
+            advanced = true;
+            if (!hasRow) {
+                close();
+            }
+        }
+        return hasRow;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        advanced = false;
+        try {
+            return mapper.map(rs);
+        } catch (SQLException ex) {
+            close();
+            throw new IllegalStateException("Error reading query results", ex);
+        }
+    }
+
+    // Sequential stream over the remaining rows; closing the stream closes the cursor
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        hasRow = false;
+        cancellable.close();
+        try {
+            rs.close();
+        } catch (SQLException ex) {
+            // Closing the statement below releases it anyway
+        }
+        try {
+            pstmt.close();
+        } catch (SQLException ex) {
+            // Closing the connection below releases it anyway
+        }
+        try {
+            conn.close();
+        } catch (SQLException ex) {
+            // Connection is discarded by the pool
+        }
+    }
+}
@@ -4,25 +4,112 @@ import Model.History;
 import Model.Logs;
 import Model.Product;
 import Model.User;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 public class SQLite {
 
     public int DEBUG_MODE = 0;
+    // Rows per executeBatch() call in the bulk insert methods
+    public int BATCH_SIZE = 500;
+    // Consecutive failed logins before authenticate() locks the account
+    public int MAX_LOGIN_ATTEMPTS = 3;
+    // Rows fetched per round trip by the streaming queries
+    public int FETCH_SIZE = 256;
     String driverURL = "jdbc:sqlite:" + "database.db";
 
+    // Shared pool of long-lived connections borrowed by every DAO method.
+    // Each pooled connection caches its prepared statements, so the fixed SQL below is only
+    // prepared once per connection.
+    private final ConnectionPool pool;
+
+    // Product lookups by name/id. Every method that writes to the product table must
+    // invalidate the rows it touches (or everything, for bulk changes)
+    private final ProductCache productCache;
+
+    // Hashes new passwords and checks logins; replaced at startup by a calibrated hasher
+    private volatile PasswordHasher passwordHasher = new BCryptPasswordHasher(BCryptPasswordHasher.MIN_COST);
+
+    // Which full-text tables (history_fts, logs_fts) exist, looked up on first search; cleared when the schema changes
+    private final Map<String, Boolean> searchIndexes = new ConcurrentHashMap<>();
+
+    // The one filter of the history paging methods (getHistory, getLatestHistory, countHistory and
+    // getHistoryWithPricingPage), as the original history search did it: username or product name
+    // contains the text, or is contained in it, case-sensitive. Takes the text four times.
+    private static final String HISTORY_SEARCH =
+            "(instr(h.username, ?) > 0 OR instr(?, h.username) > 0 OR instr(h.name, ?) > 0 OR instr(?, h.name) > 0)";
+
+    // Columns each table can be sorted by, see orderBy(). Every sort walks an index: a column is followed
+    // by the columns its index continues with (then id, which every index ends with)
+    private static final Map<String, String[]> HISTORY_SORTS = sortKeys("username", "name", "timestamp");
+    private static final Map<String, String[]> LOGS_SORTS = sortKeys("event, timestamp", "username, timestamp", "timestamp");
+    private static final Map<String, String[]> PRODUCT_SORTS = sortKeys("name", "stock", "price");
+    private static final Map<String, String[]> USERS_SORTS = sortKeys("username", "role");
+
+    // Application tables, see hasTable()
+    private static final List<String> TABLES = Arrays.asList("history", "logs", "product", "users");
+
+    public SQLite() {
+        this(4);
+    }
+
+    public SQLite(int poolSize) {
+        this(poolSize, 256);
+    }
+
+    public SQLite(int poolSize, int productCacheSize) {
+        pool = new ConnectionPool(driverURL, poolSize);
+        productCache = new ProductCache(productCacheSize);
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    public PasswordHasher getPasswordHasher() {
+        return passwordHasher;
+    }
+
+    public void setPasswordHasher(PasswordHasher hasher) {
+        passwordHasher = hasher;
+    }
+
+    public ProductCache getProductCache() {
+        return productCache;
+    }
+
+    // Close pooled connections, call once when the application exits
+    public void shutdown() {
+        if (DEBUG_MODE == 1) {
+            System.out.println(productCache);
+            System.out.println(pool);
+        }
+        pool.close();
+    }
+
     // Create database if it does not exist
     public void createNewDatabase() {
-        try (Connection conn = DriverManager.getConnection(driverURL)) {
+        try (Connection conn = pool.getConnection()) {
             if (conn != null) {
                 DatabaseMetaData meta = conn.getMetaData();
                 System.out.println("Database database.db created.");
@@ -32,26 +119,26 @@ public class SQLite {
         }
     }
 
-    // Create history table
+    // Create history table, timestamps are epoch millis
     public void createHistoryTable() {
         String sql = "CREATE TABLE IF NOT EXISTS history ("
                 + " id INTEGER PRIMARY KEY AUTOINCREMENT,"
                 + " username TEXT NOT NULL,"
                 + " name TEXT NOT NULL,"
                 + " stock INTEGER DEFAULT 0,"
-                + " timestamp TEXT NOT NULL"
+                + " timestamp INTEGER NOT NULL"
                 + ");";
         executeUpdate(sql, "Table history in database.db created.");
     }
 
-    // Create logs table
+    // Create logs table, timestamps are epoch millis
     public void createLogsTable() {
         String sql = "CREATE TABLE IF NOT EXISTS logs ("
                 + " id INTEGER PRIMARY KEY AUTOINCREMENT,"
                 + " event TEXT NOT NULL,"
                 + " username TEXT NOT NULL,"
                 + " desc TEXT NOT NULL,"
-                + " timestamp TEXT NOT NULL"
+                + " timestamp INTEGER NOT NULL"
                 + ");";
         executeUpdate(sql, "Table logs in database.db created.");
     }
@@ -80,22 +167,95 @@ public class SQLite {
         executeUpdate(sql, "Table users in database.db created.");
     }
 
+    // True if table (one of the four application tables) exists
+    public boolean hasTable(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unknown table: " + table);
+        }
+        return executeCount("SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?", table) == 1;
+    }
+
+    // Run work in a single transaction on one connection: every SQLite method the calling thread
+    // uses inside it joins the transaction. Any error those methods log rolls the whole transaction
+    // back. Returns true if it committed.
+    public boolean inTransaction(Runnable work) {
+        Connection conn;
+        try {
+            conn = pool.bind();
+        } catch (SQLException ex) {
+            logError(ex);
+            return false;
+        }
+        boolean committed = false;
+        try {
+            conn.setAutoCommit(false);
+            work.run();
+            if (pool.unbind()) {
+                conn.rollback();
+            } else {
+                conn.commit();
+                committed = true;
+            }
+        } catch (SQLException | RuntimeException ex) {
+            pool.unbind();
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                // The pool rolls back again before reusing the connection
+            }
+            System.out.println("Error in transaction: " + ex.getMessage());
+            logError(ex);
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException ex) {
+                logError(ex);
+            }
+        }
+        return committed;
+    }
+
+    // Bring the schema up to date (indexes and later changes), see SchemaMigrator
+    public void migrate() {
+        try {
+            new SchemaMigrator(pool).migrate();
+        } catch (SQLException ex) {
+            System.out.println("Error migrating schema: " + ex.getMessage());
+            logError(ex);
+        }
+        searchIndexes.clear();
+    }
+
+    // Mark the schema as unmigrated, needed after the tables have been dropped
+    public void resetSchemaVersion() {
+        try {
+            new SchemaMigrator(pool).reset();
+        } catch (SQLException ex) {
+            logError(ex);
+        }
+    }
+
     // Drop history table
     public void dropHistoryTable() {
+        executeUpdate("DROP TABLE IF EXISTS history_fts;", "Table history_fts in database.db dropped.");
         String sql = "DROP TABLE IF EXISTS history;";
         executeUpdate(sql, "Table history in database.db dropped.");
+        searchIndexes.clear();
     }
 
     // Drop logs table
     public void dropLogsTable() {
+        executeUpdate("DROP TABLE IF EXISTS logs_fts;", "Table logs_fts in database.db dropped.");
         String sql = "DROP TABLE IF EXISTS logs;";
         executeUpdate(sql, "Table logs in database.db dropped.");
+        searchIndexes.clear();
     }
 
     // Drop product table
     public void dropProductTable() {
         String sql = "DROP TABLE IF EXISTS product;";
         executeUpdate(sql, "Table product in database.db dropped.");
+        productCache.invalidateAll();
     }
 
     // Drop users table
@@ -104,40 +264,123 @@ public class SQLite {
         executeUpdate(sql, "Table users in database.db dropped.");
     }
 
-    // Add history entry using PreparedStatement
+    // Add history entry, timestamp as "yyyy-MM-dd HH:mm:ss[.SSS]" local time
     public void addHistory(String username, String name, int stock, String timestamp) {
+        addHistory(username, name, stock, Timestamp.valueOf(timestamp).getTime());
+    }
+
+    // Add history entry using PreparedStatement, timestamp in epoch millis
+    public void addHistory(String username, String name, int stock, long timestamp) {
         String sql = "INSERT INTO history(username,name,stock,timestamp) VALUES(?,?,?,?)";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, name);
             pstmt.setInt(3, stock);
-            pstmt.setString(4, timestamp);
+            pstmt.setLong(4, timestamp);
             pstmt.executeUpdate();
         } catch (SQLException ex) {
             logError(ex);
         }
     }
 
-    // Add logs entry using PreparedStatement
+    // Add logs entry, timestamp as "yyyy-MM-dd HH:mm:ss[.SSS]" local time
     public void addLogs(String event, String username, String desc, String timestamp) {
+        addLogs(event, username, desc, Timestamp.valueOf(timestamp).getTime());
+    }
+
+    // Add logs entry using PreparedStatement, timestamp in epoch millis
+    public void addLogs(String event, String username, String desc, long timestamp) {
         String sql = "INSERT INTO logs(event,username,desc,timestamp) VALUES(?,?,?,?)";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, event);
             pstmt.setString(2, username);
             pstmt.setString(3, desc);
-            pstmt.setString(4, timestamp);
+            pstmt.setLong(4, timestamp);
             pstmt.executeUpdate();
         } catch (SQLException ex) {
             logError(ex);
         }
     }
 
+    // Add many history entries in one transaction, see executeBatch for the returned outcomes
+    public int[] addHistoryBatch(List<History> entries) {
+        String sql = "INSERT INTO history(username,name,stock,timestamp) VALUES(?,?,?,?)";
+        return executeBatch(sql, entries, (pstmt, history) -> {
+            pstmt.setString(1, history.getUsername());
+            pstmt.setString(2, history.getName());
+            pstmt.setInt(3, history.getStock());
+            pstmt.setLong(4, history.getTimestampMillis());
+        });
+    }
+
+    // Add many logs entries in one transaction, see executeBatch for the returned outcomes
+    public int[] addLogsBatch(List<Logs> entries) {
+        String sql = "INSERT INTO logs(event,username,desc,timestamp) VALUES(?,?,?,?)";
+        return executeBatch(sql, entries, (pstmt, log) -> {
+            pstmt.setString(1, log.getEvent());
+            pstmt.setString(2, log.getUsername());
+            pstmt.setString(3, log.getDesc());
+            pstmt.setLong(4, log.getTimestampMillis());
+        });
+    }
+
+    // Insert the audit events an older build left in its write-behind spill file (one event per line:
+    // event, username, desc and epoch millis, tab separated, with \t \n \r and \\ escaped).
+    // The file is deleted only once every event in it has been written. Returns the events written.
+    public int replayAuditSpill(File spillFile) {
+        if (!spillFile.exists()) {
+            return 0;
+        }
+        List<Logs> pending = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new FileInputStream(spillFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 4) {
+                    System.out.println("Error: Unreadable audit spill line kept in " + spillFile + ".");
+                    return 0;
+                }
+                Logs log = new Logs(unescapeSpill(fields[0]), unescapeSpill(fields[1]), unescapeSpill(fields[2]));
+                log.setTimestampMillis(Long.parseLong(fields[3]));
+                pending.add(log);
+            }
+        } catch (IOException | NumberFormatException ex) {
+            System.out.println("Error reading audit spill file: " + ex.getMessage());
+            return 0;
+        }
+        for (int outcome : addLogsBatch(pending)) {
+            if (outcome == Statement.EXECUTE_FAILED) {
+                System.out.println("Error: Audit spill file " + spillFile + " could not be written, kept for the next start.");
+                return 0;
+            }
+        }
+        if (!spillFile.delete()) {
+            System.out.println("Error: Audit spill file " + spillFile + " could not be deleted.");
+        }
+        return pending.size();
+    }
+
+    private static String unescapeSpill(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
     // Add product entry using PreparedStatement
     public void addProduct(String name, int stock, double price) {
         String sql = "INSERT INTO product(name,stock,price) VALUES(?,?,?)";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, name);
             pstmt.setInt(2, stock);
@@ -145,14 +388,20 @@ public class SQLite {
             pstmt.executeUpdate();
         } catch (SQLException ex) {
             logError(ex);
+        } finally {
+            productCache.invalidate(name);
         }
     }
 
-    // Add user entry with hashed password using PreparedStatement
-    public void addUser(String username, String password, int role) throws NoSuchAlgorithmException {
-        String hashedPassword = hashPassword(password); // Hash the password before storing
+    // Add user entry with a plain text password, hashed here with the current PasswordHasher
+    public void addUser(String username, String password, int role) {
+        addUserWithHash(username, passwordHasher.hash(password), role);
+    }
+
+    // Add user entry whose password has already been hashed by the current PasswordHasher
+    public void addUserWithHash(String username, String hashedPassword, int role) {
         String sql = "INSERT INTO users(username,password,role) VALUES(?,?,?)";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, hashedPassword);
@@ -163,10 +412,23 @@ public class SQLite {
         }
     }
 
+    // Replace a user's password with one already hashed by the current PasswordHasher
+    public void setPasswordHash(String username, String hashedPassword) {
+        String sql = "UPDATE users SET password = ? WHERE username = ?";
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, hashedPassword);
+            pstmt.setString(2, username);
+            pstmt.executeUpdate();
+        } catch (SQLException ex) {
+            logError(ex);
+        }
+    }
+
     // Remove user by username
     public void removeUser(String username) {
         String sql = "DELETE FROM users WHERE username=?";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.executeUpdate();
@@ -188,6 +450,253 @@ public class SQLite {
         return executeQueryForLogs(sql);
     }
 
+    // Get history entries together with the current unit price of each product in one joined query.
+    // Entries whose product no longer exists get a price of 0.
+    public ArrayList<History> getHistoryWithPricing() {
+        String sql = "SELECT h.id, h.username, h.name, h.stock, COALESCE(p.price, 0) AS price, h.timestamp"
+                + " FROM history h LEFT JOIN product p ON p.name = h.name ORDER BY h.id";
+        return executeQuery(sql, this::mapPricedHistory);
+    }
+
+    // Get up to limit history entries with id greater than afterId, oldest first.
+    // Pass the id of the last row received to fetch the next page; filter is matched as in HISTORY_SEARCH.
+    public ArrayList<History> getHistory(int afterId, int limit, String filter) {
+        if (filter == null || filter.isEmpty()) {
+            String sql = "SELECT id, username, name, stock, timestamp FROM history WHERE id > ? ORDER BY id LIMIT ?";
+            return executeQueryForHistory(sql, afterId, limit);
+        }
+        String sql = "SELECT h.id, h.username, h.name, h.stock, h.timestamp FROM history h WHERE h.id > ?"
+                + " AND " + HISTORY_SEARCH + " ORDER BY h.id LIMIT ?";
+        return executeQueryForHistory(sql, afterId, filter, filter, filter, filter, limit);
+    }
+
+    // Get up to limit history entries with id less than beforeId, newest first; filter as in getHistory()
+    public ArrayList<History> getLatestHistory(int beforeId, int limit, String filter) {
+        if (filter == null || filter.isEmpty()) {
+            String sql = "SELECT id, username, name, stock, timestamp FROM history WHERE id < ? ORDER BY id DESC LIMIT ?";
+            return executeQueryForHistory(sql, beforeId, limit);
+        }
+        String sql = "SELECT h.id, h.username, h.name, h.stock, h.timestamp FROM history h WHERE h.id < ?"
+                + " AND " + HISTORY_SEARCH + " ORDER BY h.id DESC LIMIT ?";
+        return executeQueryForHistory(sql, beforeId, filter, filter, filter, filter, limit);
+    }
+
+    // Get the newest limit history entries
+    public ArrayList<History> getLatestHistory(int limit) {
+        return getLatestHistory(Integer.MAX_VALUE, limit, null);
+    }
+
+    // Get up to limit logs entries with id greater than afterId, oldest first
+    public ArrayList<Logs> getLogs(int afterId, int limit) {
+        String sql = "SELECT id, event, username, desc, timestamp FROM logs WHERE id > ? ORDER BY id LIMIT ?";
+        return executeQueryForLogs(sql, afterId, limit);
+    }
+
+    // Get up to limit logs entries with id less than beforeId, newest first
+    public ArrayList<Logs> getLatestLogs(int beforeId, int limit) {
+        String sql = "SELECT id, event, username, desc, timestamp FROM logs WHERE id < ? ORDER BY id DESC LIMIT ?";
+        return executeQueryForLogs(sql, beforeId, limit);
+    }
+
+    // Get the newest limit logs entries
+    public ArrayList<Logs> getLatestLogs(int limit) {
+        return getLatestLogs(Integer.MAX_VALUE, limit);
+    }
+
+    // Number of logs entries
+    public int countLogs() {
+        return countLogs(LogFilter.ALL);
+    }
+
+    // Page of logs entries oldest first: the limit entries after skipping offset entries with id greater
+    // than afterId. Pass the last id of the previous page and offset 0 to page by key, which stays fast
+    // deep into the table; pass afterId 0 and an offset to jump straight to any page.
+    public ArrayList<Logs> getLogsPage(int afterId, int offset, int limit) {
+        return searchLogs(LogFilter.ALL, afterId, offset, limit, Sort.DEFAULT);
+    }
+
+    // Number of logs entries matching filter
+    public int countLogs(LogFilter filter) {
+        List<Object> params = new ArrayList<>();
+        String where = logsWhere(filter, params);
+        return executeCount("SELECT COUNT(*) FROM logs WHERE " + where, params.toArray());
+    }
+
+    // Page of logs entries matching filter, oldest first, see getLogsPage(). Event and username use the
+    // (event, timestamp) and (username, timestamp) indexes, a time range the timestamp index, and text
+    // the logs_fts index over desc (a LIKE scan when the driver has no FTS5).
+    public ArrayList<Logs> searchLogs(LogFilter filter, int afterId, int offset, int limit) {
+        return searchLogs(filter, afterId, offset, limit, Sort.DEFAULT);
+    }
+
+    // Same as searchLogs(filter, afterId, offset, limit) in sort order: by event, username or timestamp
+    // (the first two then by timestamp). afterId is the last row of the previous page in that order.
+    public ArrayList<Logs> searchLogs(LogFilter filter, int afterId, int offset, int limit, Sort sort) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder(logsWhere(filter, params));
+        String orderBy = orderBy("logs", "", LOGS_SORTS, sort, afterId, where, params);
+        params.add(limit);
+        params.add(offset);
+        String sql = "SELECT id, event, username, desc, timestamp FROM logs WHERE " + where + orderBy + " LIMIT ? OFFSET ?";
+        return executeQueryForLogs(sql, params.toArray());
+    }
+
+    // Number of history entries matching search, see getHistoryWithPricingPage()
+    public int countHistory(String search) {
+        if (search == null || search.isEmpty()) {
+            return executeCount("SELECT COUNT(*) FROM history h");
+        }
+        return executeCount("SELECT COUNT(*) FROM history h WHERE " + HISTORY_SEARCH, search, search, search, search);
+    }
+
+    // Page of getHistoryWithPricing() entries, see getLogsPage(). A non-empty search keeps the entries
+    // whose username or product name contains it or is contained in it (case-sensitive).
+    public ArrayList<History> getHistoryWithPricingPage(int afterId, int offset, int limit, String search) {
+        return getHistoryWithPricingPage(afterId, offset, limit, search, Sort.DEFAULT);
+    }
+
+    // Same as getHistoryWithPricingPage(afterId, offset, limit, search) in sort order: by username, product
+    // name or timestamp. afterId is the last row of the previous page in that order.
+    public ArrayList<History> getHistoryWithPricingPage(int afterId, int offset, int limit, String search, Sort sort) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder("1 = 1");
+        if (search != null && !search.isEmpty()) {
+            where.append(" AND ").append(HISTORY_SEARCH);
+            params.addAll(Arrays.asList(search, search, search, search));
+        }
+        String orderBy = orderBy("history", "h.", HISTORY_SORTS, sort, afterId, where, params);
+        params.add(limit);
+        params.add(offset);
+        String sql = "SELECT h.id, h.username, h.name, h.stock, COALESCE(p.price, 0) AS price, h.timestamp"
+                + " FROM history h LEFT JOIN product p ON p.name = h.name WHERE " + where + orderBy + " LIMIT ? OFFSET ?";
+        return executeQuery(sql, this::mapPricedHistory, params.toArray());
+    }
+
+    // First limit history entries matching a search, best match first, see searchHistory(query, offset, limit)
+    public ArrayList<History> searchHistory(String query, int limit) {
+        return searchHistory(query, 0, limit);
+    }
+
+    // Page of history entries, with pricing, whose username or product name has words starting with
+    // every word of query, ranked by bm25 through the history_fts index. Only word starts match:
+    // "anti" finds Antivirus, "virus" does not. Without that index (no FTS5 in the driver) it falls
+    // back to the substring search of getHistoryWithPricingPage(), oldest first, which does find it;
+    // MgmtHistory tells the user which one applies. An empty query returns every entry.
+    public ArrayList<History> searchHistory(String query, int offset, int limit) {
+        return searchHistory(query, 0, offset, limit, Sort.DEFAULT);
+    }
+
+    // Same as searchHistory(query, offset, limit), but a sort other than the default replaces the ranking,
+    // see getHistoryWithPricingPage(afterId, offset, limit, search, sort)
+    public ArrayList<History> searchHistory(String query, int afterId, int offset, int limit, Sort sort) {
+        String match = ftsQuery(query);
+        if (match == null) {
+            return getHistoryWithPricingPage(afterId, offset, limit, null, sort);
+        }
+        if (!hasSearchIndex("history_fts")) {
+            return getHistoryWithPricingPage(afterId, offset, limit, query.trim(), sort);
+        }
+        List<Object> params = new ArrayList<>();
+        params.add(match);
+        StringBuilder where = new StringBuilder("history_fts MATCH ?");
+        String orderBy = sort.isDefault() ? " ORDER BY f.rank, h.id"
+                : orderBy("history", "h.", HISTORY_SORTS, sort, afterId, where, params);
+        params.add(limit);
+        params.add(offset);
+        String sql = "SELECT h.id, h.username, h.name, h.stock, COALESCE(p.price, 0) AS price, h.timestamp"
+                + " FROM history_fts f JOIN history h ON h.id = f.rowid LEFT JOIN product p ON p.name = h.name"
+                + " WHERE " + where + orderBy + " LIMIT ? OFFSET ?";
+        return executeQuery(sql, this::mapPricedHistory, params.toArray());
+    }
+
+    // Number of entries searchHistory() can return for query
+    public int countSearchHistory(String query) {
+        String match = ftsQuery(query);
+        if (match == null) {
+            return countHistory(null);
+        }
+        if (!hasSearchIndex("history_fts")) {
+            return countHistory(query.trim());
+        }
+        return executeCount("SELECT COUNT(*) FROM history_fts WHERE history_fts MATCH ?", match);
+    }
+
+    // Whether a full-text table from the schema migrations exists (history_fts, logs_fts).
+    // They are optional, see SchemaMigrator. The answer is cached, so a cancelled search must not answer it.
+    // A lookup that fails (e.g. a busy database) answers false for this search only and is not cached.
+    public boolean hasSearchIndex(String table) {
+        Boolean known = searchIndexes.get(table);
+        if (known != null) {
+            return known;
+        }
+        ArrayList<Integer> counts = Cancellation.uncancellable(() -> executeQuery(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?", rs -> rs.getInt(1), table));
+        if (counts.isEmpty()) {
+            return false;
+        }
+        boolean exists = counts.get(0) > 0;
+        searchIndexes.put(table, exists);
+        return exists;
+    }
+
+    // Stream every history entry without materializing the table; close the stream when done
+    // (try-with-resources) to return its connection to the pool
+    public Stream<History> streamHistory() {
+        String sql = "SELECT id, username, name, stock, timestamp FROM history ORDER BY id";
+        return executeStream(sql, this::mapHistory);
+    }
+
+    // Stream every logs entry, see streamHistory()
+    public Stream<Logs> streamLogs() {
+        String sql = "SELECT id, event, username, desc, timestamp FROM logs ORDER BY id";
+        return executeStream(sql, this::mapLogs);
+    }
+
+    // Stream every product entry, see streamHistory()
+    public Stream<Product> streamProducts() {
+        return streamProducts(null, Sort.DEFAULT);
+    }
+
+    // Stream the product entries whose name contains search, every entry when it is empty,
+    // in sort order: by name, stock or price
+    public Stream<Product> streamProducts(String search, Sort sort) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder("1 = 1");
+        if (search != null && !search.isEmpty()) {
+            where.append(" AND name LIKE ? ESCAPE '\\'");
+            params.add(likePattern(search));
+        }
+        String orderBy = orderBy("product", "", PRODUCT_SORTS, sort, 0, where, params);
+        String sql = "SELECT id, name, stock, price FROM product WHERE " + where + orderBy;
+        return executeStream(sql, this::mapProduct, params.toArray());
+    }
+
+    // Stream getHistoryWithPricing() rows, see streamHistory()
+    public Stream<History> streamHistoryWithPricing() {
+        String sql = "SELECT h.id, h.username, h.name, h.stock, COALESCE(p.price, 0) AS price, h.timestamp"
+                + " FROM history h LEFT JOIN product p ON p.name = h.name ORDER BY h.id";
+        return executeStream(sql, this::mapPricedHistory);
+    }
+
+    // Stream every user excluding passwords, see streamHistory()
+    public Stream<User> streamUsers() {
+        return streamUsers(null, Sort.DEFAULT);
+    }
+
+    // Stream the users whose username contains search excluding passwords, every user when it is empty,
+    // in sort order: by username or role
+    public Stream<User> streamUsers(String search, Sort sort) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder("1 = 1");
+        if (search != null && !search.isEmpty()) {
+            where.append(" AND username LIKE ? ESCAPE '\\'");
+            params.add(likePattern(search));
+        }
+        String orderBy = orderBy("users", "", USERS_SORTS, sort, 0, where, params);
+        String sql = "SELECT id, username, role, locked FROM users WHERE " + where + orderBy; // Exclude password field
+        return executeStream(sql, this::mapUserWithoutPassword, params.toArray());
+    }
+
     // Get product entries
     public ArrayList<Product> getProduct() {
         String sql = "SELECT id, name, stock, price FROM product";
@@ -197,40 +706,12 @@ public class SQLite {
     // Get users excluding passwords
     public ArrayList<User> getUsers() {
         String sql = "SELECT id, username, role, locked FROM users"; // Exclude password field
-        ArrayList<User> users = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(driverURL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                users.add(new User(rs.getInt("id"),
-                        rs.getString("username"),
-                        "",
-                        rs.getInt("role"),
-                        rs.getInt("locked")));
-            }
-        } catch (SQLException ex) {
-            logError(ex);
-        }
-        return users;
-    }
-
-    // Helper method to hash passwords using SHA-256
-    private String hashPassword(String plainTextPassword) throws NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hashBytes = digest.digest(plainTextPassword.getBytes());
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hashBytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
+        return executeQuery(sql, this::mapUserWithoutPassword);
     }
 
-    // Helper method to log errors
+    // Helper method to log errors; inside inTransaction() an error also dooms the transaction
     private void logError(Exception ex) {
+        pool.markRollbackOnly();
         if (DEBUG_MODE == 1) {
             ex.printStackTrace();
         }
@@ -238,7 +719,7 @@ public class SQLite {
 
     // Helper method to execute SQL updates
     private void executeUpdate(String sql, String successMessage) {
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              Statement stmt = conn.createStatement()) {
             stmt.execute(sql);
             System.out.println(successMessage);
@@ -247,76 +728,324 @@ public class SQLite {
         }
     }
 
-    // Helper method to execute SQL queries for history
-    private ArrayList<History> executeQueryForHistory(String sql) {
-        ArrayList<History> histories = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(driverURL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                histories.add(new History(rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("name"),
-                        rs.getInt("stock"),
-                        rs.getString("timestamp")));
+    // Helper method to prepare a statement and bind its positional parameters
+    private PreparedStatement prepare(Connection conn, String sql, Object... params) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        for (int nCtr = 0; nCtr < params.length; nCtr++) {
+            pstmt.setObject(nCtr + 1, params[nCtr]);
+        }
+        return pstmt;
+    }
+
+    // Helper method to sort a query of table (columns prefixed with alias) by sort, returns the ORDER BY
+    // clause. With afterId > 0 it also appends the keyset condition for the rows after that row to where:
+    // a row value comparison on the sort columns and id, so the next page is an index seek, not an OFFSET.
+    // The sort values of that row are looked up first and bound as plain parameters, which lets SQLite
+    // seek on every column of the index (with a subquery it only seeks on the first one).
+    private String orderBy(String table, String alias, Map<String, String[]> sortable, Sort sort, int afterId,
+            StringBuilder where, List<Object> params) {
+        List<String> keys = new ArrayList<>();
+        if (!sort.isDefault()) {
+            String[] columns = sortable.get(sort.getColumn());
+            if (columns == null) {
+                throw new IllegalArgumentException("Table " + table + " cannot be sorted by " + sort.getColumn());
+            }
+            keys.addAll(Arrays.asList(columns));
+        }
+        keys.add("id");
+
+        String direction = sort.isDescending() ? " DESC" : "";
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        StringBuilder qualified = new StringBuilder();
+        for (String key : keys) {
+            orderBy.append(qualified.length() == 0 ? "" : ", ").append(alias).append(key).append(direction);
+            qualified.append(qualified.length() == 0 ? "" : ", ").append(alias).append(key);
+        }
+        if (afterId > 0) {
+            String after = sort.isDescending() ? " < " : " > ";
+            if (keys.size() == 1) {
+                where.append(" AND ").append(alias).append("id").append(after).append("?");
+                params.add(afterId);
+                return orderBy.toString();
+            }
+            String sql = "SELECT " + String.join(", ", keys) + " FROM " + table + " WHERE id = ?";
+            List<Object[]> last = executeQuery(sql, rs -> {
+                Object[] values = new Object[keys.size()];
+                for (int nCtr = 0; nCtr < values.length; nCtr++) {
+                    values[nCtr] = rs.getObject(nCtr + 1);
+                }
+                return values;
+            }, afterId);
+            if (last.isEmpty()) {
+                where.append(" AND 0 = 1"); // Row deleted since the previous page, nothing to continue from
+                return orderBy.toString();
             }
+            where.append(" AND (").append(qualified).append(")").append(after)
+                    .append("(").append(String.join(", ", Collections.nCopies(keys.size(), "?"))).append(")");
+            params.addAll(Arrays.asList(last.get(0)));
+        }
+        return orderBy.toString();
+    }
+
+    // Helper method to build a sortable column map: each entry lists a column and the columns ordered after it
+    private static Map<String, String[]> sortKeys(String... entries) {
+        Map<String, String[]> keys = new HashMap<>();
+        for (String entry : entries) {
+            String[] columns = entry.split(", ");
+            keys.put(columns[0], columns);
+        }
+        return keys;
+    }
+
+    // Helper method to turn a LogFilter into a WHERE condition, adding its parameters to params
+    private String logsWhere(LogFilter filter, List<Object> params) {
+        StringBuilder where = new StringBuilder("1 = 1");
+        if (filter.getEvent() != null) {
+            where.append(" AND event = ?");
+            params.add(filter.getEvent());
+        }
+        if (filter.getUsername() != null) {
+            where.append(" AND username = ?");
+            params.add(filter.getUsername());
+        }
+        if (filter.getFrom() != null) {
+            where.append(" AND timestamp >= ?");
+            params.add(filter.getFrom().getTime());
+        }
+        if (filter.getTo() != null) {
+            where.append(" AND timestamp <= ?");
+            params.add(filter.getTo().getTime());
+        }
+        String match = ftsQuery(filter.getText());
+        if (match != null && hasSearchIndex("logs_fts")) {
+            where.append(" AND id IN (SELECT rowid FROM logs_fts WHERE logs_fts MATCH ?)");
+            params.add(match);
+        } else if (filter.getText() != null) {
+            where.append(" AND desc LIKE ? ESCAPE '\\'");
+            params.add(likePattern(filter.getText()));
+        }
+        return where.toString();
+    }
+
+    // FTS5 query matching every word of text as a prefix ("word"*), null if text has no words
+    private String ftsQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                match.append(match.length() == 0 ? "" : " ").append('"').append(word).append("\"*");
+            }
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+
+    // Helper method to turn user input into a LIKE pattern matching it anywhere, wildcards escaped
+    private String likePattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    // Helper method to run a COUNT query, 0 if it cannot be run
+    private int executeCount(String sql, Object... params) {
+        ArrayList<Integer> counts = executeQuery(sql, rs -> rs.getInt(1), params);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    // Binds one row of a bulk insert
+    private interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    // Helper method to run a bulk insert as JDBC batches of BATCH_SIZE rows inside a single transaction.
+    // Returns one outcome per row: the update count, or Statement.EXECUTE_FAILED. A chunk that fails is
+    // rolled back to its savepoint and retried row by row, so a bad row only fails itself.
+    private <T> int[] executeBatch(String sql, List<T> rows, RowBinder<T> binder) {
+        int[] outcomes = new int[rows.size()];
+        Arrays.fill(outcomes, Statement.EXECUTE_FAILED);
+        if (rows.isEmpty()) {
+            return outcomes;
+        }
+        int chunkSize = Math.max(1, BATCH_SIZE);
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int start = 0; start < rows.size(); start += chunkSize) {
+                    int end = Math.min(start + chunkSize, rows.size());
+                    Savepoint chunk = conn.setSavepoint();
+                    try {
+                        for (int nCtr = start; nCtr < end; nCtr++) {
+                            binder.bind(pstmt, rows.get(nCtr));
+                            pstmt.addBatch();
+                        }
+                        int[] counts = pstmt.executeBatch();
+                        System.arraycopy(counts, 0, outcomes, start, counts.length);
+                        conn.releaseSavepoint(chunk);
+                    } catch (SQLException ex) {
+                        pstmt.clearBatch();
+                        conn.rollback(chunk);
+                        for (int nCtr = start; nCtr < end; nCtr++) {
+                            outcomes[nCtr] = executeBatchRow(conn, sql, binder, rows.get(nCtr));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            Arrays.fill(outcomes, Statement.EXECUTE_FAILED);
+            logError(ex);
+        }
+        return outcomes;
+    }
+
+    // Helper method to insert a single row of a failed chunk under its own savepoint.
+    // The driver closes a statement whose update fails and a statement that has run a batch
+    // cannot run single updates, so every retried row gets its own statement.
+    private <T> int executeBatchRow(Connection conn, String sql, RowBinder<T> binder, T row) throws SQLException {
+        Savepoint single = conn.setSavepoint();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            binder.bind(pstmt, row);
+            int count = pstmt.executeUpdate();
+            conn.releaseSavepoint(single);
+            return count;
         } catch (SQLException ex) {
+            conn.rollback(single);
             logError(ex);
+            return Statement.EXECUTE_FAILED;
         }
-        return histories;
+    }
+
+    // Helper method to execute SQL queries for history
+    private ArrayList<History> executeQueryForHistory(String sql, Object... params) {
+        return executeQuery(sql, this::mapHistory, params);
     }
 
     // Helper method to execute SQL queries for logs
-    private ArrayList<Logs> executeQueryForLogs(String sql) {
-        ArrayList<Logs> logs = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(driverURL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    private ArrayList<Logs> executeQueryForLogs(String sql, Object... params) {
+        return executeQuery(sql, this::mapLogs, params);
+    }
+
+    // Helper method to execute a SQL query for a single product, null if there is none
+    private Product executeQueryForProduct(String sql, Object... params) {
+        ArrayList<Product> products = executeQueryForProducts(sql, params);
+        return products.isEmpty() ? null : products.get(0);
+    }
+
+    // Helper method to execute SQL queries for products
+    private ArrayList<Product> executeQueryForProducts(String sql, Object... params) {
+        return executeQuery(sql, this::mapProduct, params);
+    }
+
+    // Helper method to execute a SQL query and collect every mapped row.
+    // The cancellation registration is a resource only so it is closed with the statement
+    @SuppressWarnings("try")
+    private <T> ArrayList<T> executeQuery(String sql, RowCursor.Mapper<T> mapper, Object... params) {
+        ArrayList<T> rows = new ArrayList<>();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = prepare(conn, sql, params);
+             Cancellation.Registration cancellable = Cancellation.register(pstmt);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                logs.add(new Logs(rs.getInt("id"),
-                        rs.getString("event"),
-                        rs.getString("username"),
-                        rs.getString("desc"),
-                        rs.getString("timestamp")));
+                rows.add(mapper.map(rs));
             }
         } catch (SQLException ex) {
             logError(ex);
         }
-        return logs;
+        return rows;
     }
 
-    // Helper method to execute SQL queries for products
-    private ArrayList<Product> executeQueryForProducts(String sql) {
-        ArrayList<Product> products = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(driverURL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                products.add(new Product(rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getInt("stock"),
-                        rs.getFloat("price")));
+    // Helper method to open a streaming cursor; the connection stays borrowed until the cursor is closed
+    private <T> RowCursor<T> openCursor(String sql, RowCursor.Mapper<T> mapper, Object... params) throws SQLException {
+        Connection conn = pool.getConnection();
+        PreparedStatement pstmt = null;
+        Cancellation.Registration cancellable = null;
+        try {
+            pstmt = prepare(conn, sql, params);
+            pstmt.setFetchSize(FETCH_SIZE);
+            cancellable = Cancellation.register(pstmt);
+            return new RowCursor<>(conn, pstmt, cancellable, pstmt.executeQuery(), mapper);
+        } catch (SQLException ex) {
+            if (cancellable != null) {
+                cancellable.close();
+            }
+            if (pstmt != null) {
+                pstmt.close();
             }
+            conn.close();
+            throw ex;
+        }
+    }
+
+    // Helper method to stream a SQL query, an empty stream if it cannot be run
+    private <T> Stream<T> executeStream(String sql, RowCursor.Mapper<T> mapper, Object... params) {
+        try {
+            return openCursor(sql, mapper, params).stream();
         } catch (SQLException ex) {
             logError(ex);
+            return Stream.empty();
         }
-        return products;
+    }
+
+    private History mapHistory(ResultSet rs) throws SQLException {
+        return new History(rs.getInt("id"),
+                rs.getString("username"),
+                rs.getString("name"),
+                rs.getInt("stock"),
+                rs.getLong("timestamp"));
+    }
+
+    private History mapPricedHistory(ResultSet rs) throws SQLException {
+        return new History(rs.getInt("id"),
+                rs.getString("username"),
+                rs.getString("name"),
+                rs.getInt("stock"),
+                rs.getFloat("price"),
+                rs.getLong("timestamp"));
+    }
+
+    private Logs mapLogs(ResultSet rs) throws SQLException {
+        return new Logs(rs.getInt("id"),
+                rs.getString("event"),
+                rs.getString("username"),
+                rs.getString("desc"),
+                rs.getLong("timestamp"));
+    }
+
+    private Product mapProduct(ResultSet rs) throws SQLException {
+        return new Product(rs.getInt("id"),
+                rs.getString("name"),
+                rs.getInt("stock"),
+                rs.getFloat("price"));
+    }
+
+    private User mapUserWithoutPassword(ResultSet rs) throws SQLException {
+        return new User(rs.getInt("id"),
+                rs.getString("username"),
+                "",
+                rs.getInt("role"),
+                rs.getInt("locked"));
     }
 
     public User getUserByUsername(String username) {
         String sql = "SELECT id, username, password, role, locked FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username); // Safely set the username parameter to prevent SQL injection
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("password"), // Password should be hashed
-                        rs.getInt("role"),
-                        rs.getInt("locked")
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new User(
+                            rs.getInt("id"),
+                            rs.getString("username"),
+                            rs.getString("password"), // Password should be hashed
+                            rs.getInt("role"),
+                            rs.getInt("locked")
+                    );
+                }
             }
         } catch (SQLException ex) {
             System.out.println("Error retrieving user by username: " + ex.getMessage());
@@ -326,7 +1055,7 @@ public class SQLite {
     
     public void resetFailedLoginAttempts(String username) {
         String sql = "UPDATE users SET failed_attempts = 0 WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.executeUpdate();
@@ -338,7 +1067,7 @@ public class SQLite {
     public int incrementFailedLoginAttempts(String username) {
         String incrementSql = "UPDATE users SET failed_attempts = failed_attempts + 1 WHERE username = ?";
         String selectSql = "SELECT failed_attempts FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(driverURL)) {
+        try (Connection conn = pool.getConnection()) {
             // Increment failed attempts
             try (PreparedStatement incrementStmt = conn.prepareStatement(incrementSql)) {
                 incrementStmt.setString(1, username);
@@ -347,9 +1076,10 @@ public class SQLite {
             // Retrieve updated failed attempts
             try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
                 selectStmt.setString(1, username);
-                ResultSet rs = selectStmt.executeQuery();
-                if (rs.next()) {
-                    return rs.getInt("failed_attempts");
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt("failed_attempts");
+                    }
                 }
             }
         } catch (SQLException ex) {
@@ -360,7 +1090,7 @@ public class SQLite {
 
     public void lockAccount(String username) {
         String sql = "UPDATE users SET locked = 1 WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(driverURL);
+        try (Connection conn = pool.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.executeUpdate();
@@ -369,31 +1099,129 @@ public class SQLite {
         }
     }
     
-    public void logAuthenticationEvent(String username, String event) {
-    String sql = "INSERT INTO logs(event, username, desc, timestamp) VALUES(?, ?, ?, ?)";
-    try (Connection conn = DriverManager.getConnection(driverURL);
-         PreparedStatement pstmt = conn.prepareStatement(sql)) {
-        pstmt.setString(1, event);
-        pstmt.setString(2, username);
-        pstmt.setString(3, event.equals("SUCCESSFUL_LOGIN") ? "User logged in successfully" : "Failed login attempt");
-        pstmt.setString(4, new java.sql.Timestamp(new java.util.Date().getTime()).toString());
-        pstmt.executeUpdate();
-    } catch (SQLException ex) {
-        System.out.println("Error logging authentication event: " + ex.getMessage());
-    }
+    // Check a login attempt and record its outcome.
+    // The user lookup hands its connection back before the password check, so no pooled connection
+    // is held while BCrypt runs (a calibrated check takes about 250 ms and the pool is small). The
+    // outcome is then written in one transaction on a second connection. Each branch starts with an
+    // UPDATE that re-checks the row in its WHERE clause, so the transaction holds the write lock
+    // before it reads anything: the lock state and failed-attempt counter it acts on cannot change
+    // under it, and concurrent logins queue on the busy timeout instead of deadlocking.
+    // A successful login whose stored hash was made with other settings is rehashed with the
+    // current PasswordHasher, so changing the cost needs no migration.
+    public AuthResult authenticate(String username, String password) {
+        String selectSql = "SELECT id, username, password, role, locked FROM users WHERE username = ?";
+        String resetSql = "UPDATE users SET failed_attempts = 0 WHERE username = ? AND password = ? AND locked = 0";
+        String lockedSql = "SELECT locked FROM users WHERE username = ?";
+        String rehashSql = "UPDATE users SET password = ? WHERE username = ?";
+        String failSql = "UPDATE users SET failed_attempts = failed_attempts + 1,"
+                + " locked = CASE WHEN failed_attempts + 1 >= ? THEN 1 ELSE locked END WHERE username = ?";
+        String attemptsSql = "SELECT failed_attempts FROM users WHERE username = ?";
+        String logSql = "INSERT INTO logs(event,username,desc,timestamp) VALUES(?,?,?,?)";
+        try {
+            User user = null;
+            try (Connection conn = pool.getConnection();
+                 PreparedStatement pstmt = prepare(conn, selectSql, username);
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    user = new User(rs.getInt("id"),
+                            rs.getString("username"),
+                            rs.getString("password"),
+                            rs.getInt("role"),
+                            rs.getInt("locked"));
+                }
+            }
+
+            // BCrypt runs with no connection borrowed
+            PasswordHasher hasher = passwordHasher;
+            boolean verified = user != null && hasher.verify(password, user.getPassword());
+            String rehashed = verified && user.getLocked() == 0 && hasher.needsRehash(user.getPassword())
+                    ? hasher.hash(password) : null;
+
+            try (Connection conn = pool.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    AuthResult result = null;
+                    if (verified) {
+                        // Only succeeds if the account is still unlocked and the checked hash is still stored
+                        int reset;
+                        try (PreparedStatement pstmt = prepare(conn, resetSql, username, user.getPassword())) {
+                            reset = pstmt.executeUpdate();
+                        }
+                        if (reset == 1) {
+                            if (rehashed != null) {
+                                try (PreparedStatement pstmt = prepare(conn, rehashSql, rehashed, username)) {
+                                    pstmt.executeUpdate();
+                                }
+                                user.setPassword(rehashed);
+                            }
+                            result = new AuthResult(AuthResult.Status.SUCCESS, user, 0);
+                        } else {
+                            try (PreparedStatement pstmt = prepare(conn, lockedSql, username);
+                                 ResultSet rs = pstmt.executeQuery()) {
+                                if (rs.next() && rs.getInt("locked") == 1) {
+                                    conn.rollback();
+                                    return new AuthResult(AuthResult.Status.ACCOUNT_LOCKED, null, 0);
+                                }
+                            }
+                            // The password changed since the lookup, so this attempt counts as a failure
+                        }
+                    }
+                    if (result == null) {
+                        int failedAttempts = 0;
+                        try (PreparedStatement pstmt = prepare(conn, failSql, MAX_LOGIN_ATTEMPTS, username)) {
+                            pstmt.executeUpdate();
+                        }
+                        try (PreparedStatement pstmt = prepare(conn, attemptsSql, username);
+                             ResultSet rs = pstmt.executeQuery()) {
+                            if (rs.next()) {
+                                failedAttempts = rs.getInt("failed_attempts");
+                            }
+                        }
+                        result = new AuthResult(failedAttempts >= MAX_LOGIN_ATTEMPTS
+                                ? AuthResult.Status.LOCKED_OUT : AuthResult.Status.INVALID_CREDENTIALS, null, failedAttempts);
+                    }
+                    boolean success = result.isSuccess();
+                    try (PreparedStatement pstmt = prepare(conn, logSql, success ? "SUCCESSFUL_LOGIN" : "FAILED_LOGIN", username,
+                            success ? "User logged in successfully" : "Failed login attempt",
+                            System.currentTimeMillis())) {
+                        pstmt.executeUpdate();
+                    }
+                    conn.commit();
+                    return result;
+                } catch (SQLException ex) {
+                    conn.rollback();
+                    throw ex;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException ex) {
+            System.out.println("Error authenticating user: " + ex.getMessage());
+            logError(ex);
+            return new AuthResult(AuthResult.Status.ERROR, null, 0);
+        }
     }
 
+    // Get a product by name, served from the product cache when possible
     public Product getProduct(String name){
-        String sql = "SELECT name, stock, price FROM product WHERE name='" + name + "';";
-        Product product = null;
-        try (Connection conn = DriverManager.getConnection(driverURL);
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql)){
-            product = new Product(rs.getString("name"),
-                                   rs.getInt("stock"),
-                                   rs.getFloat("price"));
-        } catch (Exception ex) {
-            System.out.print(ex);
+        long generation = productCache.getGeneration();
+        Product product = productCache.getByName(name);
+        if (product == null) {
+            String sql = "SELECT id, name, stock, price FROM product WHERE name = ?";
+            product = executeQueryForProduct(sql, name);
+            productCache.put(product, generation);
+        }
+        return product;
+    }
+
+    // Get a product by id, served from the product cache when possible
+    public Product getProductById(int id){
+        long generation = productCache.getGeneration();
+        Product product = productCache.getById(id);
+        if (product == null) {
+            String sql = "SELECT id, name, stock, price FROM product WHERE id = ?";
+            product = executeQueryForProduct(sql, id);
+            productCache.put(product, generation);
         }
         return product;
     }
@@ -0,0 +1,221 @@
+package Controller;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Ordered schema migrations tracked with PRAGMA user_version.
+// Each migration runs under its own savepoint together with the version bump, so a failed
+// migration leaves the database at the previous version. Statements must be idempotent
+// (IF NOT EXISTS) because the tables themselves are still created by SQLite.create*Table().
+// An optional migration needs an SQLite module (e.g. fts5); when the driver lacks it, the migration
+// is recorded as applied without its changes and callers fall back, see SQLite.hasSearchIndex().
+public class SchemaMigrator {
+
+    // Full-text indexes over history and logs, kept in sync with their table by triggers
+    private static final String[] HISTORY_FTS = {
+        "CREATE VIRTUAL TABLE IF NOT EXISTS history_fts USING fts5("
+                + "username, name, content='history', content_rowid='id')",
+        "CREATE TRIGGER IF NOT EXISTS history_fts_insert AFTER INSERT ON history BEGIN"
+                + " INSERT INTO history_fts(rowid, username, name) VALUES (new.id, new.username, new.name);"
+                + " END",
+        "CREATE TRIGGER IF NOT EXISTS history_fts_delete AFTER DELETE ON history BEGIN"
+                + " INSERT INTO history_fts(history_fts, rowid, username, name) VALUES ('delete', old.id, old.username, old.name);"
+                + " END",
+        "CREATE TRIGGER IF NOT EXISTS history_fts_update AFTER UPDATE OF username, name ON history BEGIN"
+                + " INSERT INTO history_fts(history_fts, rowid, username, name) VALUES ('delete', old.id, old.username, old.name);"
+                + " INSERT INTO history_fts(rowid, username, name) VALUES (new.id, new.username, new.name);"
+                + " END",
+        "INSERT INTO history_fts(history_fts) VALUES ('rebuild')"
+    };
+    private static final String[] LOGS_FTS = {
+        "CREATE VIRTUAL TABLE IF NOT EXISTS logs_fts USING fts5(desc, content='logs', content_rowid='id')",
+        "CREATE TRIGGER IF NOT EXISTS logs_fts_insert AFTER INSERT ON logs BEGIN"
+                + " INSERT INTO logs_fts(rowid, desc) VALUES (new.id, new.desc);"
+                + " END",
+        "CREATE TRIGGER IF NOT EXISTS logs_fts_delete AFTER DELETE ON logs BEGIN"
+                + " INSERT INTO logs_fts(logs_fts, rowid, desc) VALUES ('delete', old.id, old.desc);"
+                + " END",
+        "CREATE TRIGGER IF NOT EXISTS logs_fts_update AFTER UPDATE OF desc ON logs BEGIN"
+                + " INSERT INTO logs_fts(logs_fts, rowid, desc) VALUES ('delete', old.id, old.desc);"
+                + " INSERT INTO logs_fts(rowid, desc) VALUES (new.id, new.desc);"
+                + " END",
+        "INSERT INTO logs_fts(logs_fts) VALUES ('rebuild')"
+    };
+
+    // Epoch millis of a TEXT timestamp ("yyyy-MM-dd HH:mm:ss.SSS" in local time), exact to the millisecond.
+    // Values that are already integers are kept, so the conversion also works on tables created as INTEGER
+    private static final String EPOCH_MILLIS = "CASE WHEN typeof(timestamp) = 'integer' THEN timestamp"
+            + " ELSE strftime('%s', timestamp, 'utc') * 1000 + CAST(substr(strftime('%f', timestamp), 4) AS INTEGER) END";
+
+    private final ConnectionPool pool;
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator(ConnectionPool pool) {
+        this.pool = pool;
+
+        add(1, "Index history by username and product name",
+                "CREATE INDEX IF NOT EXISTS idx_history_username ON history(username)",
+                "CREATE INDEX IF NOT EXISTS idx_history_name ON history(name)");
+        add(2, "Index logs by timestamp and by username + timestamp",
+                "CREATE INDEX IF NOT EXISTS idx_logs_timestamp ON logs(timestamp)",
+                "CREATE INDEX IF NOT EXISTS idx_logs_username_timestamp ON logs(username, timestamp)");
+        addOptional(3, "fts5", "Full-text index over history username and product name", HISTORY_FTS);
+        add(4, "Index logs by event + timestamp",
+                "CREATE INDEX IF NOT EXISTS idx_logs_event_timestamp ON logs(event, timestamp)");
+        addOptional(5, "fts5", "Full-text index over logs description", LOGS_FTS);
+        add(6, "Index the sortable columns of history, product and users",
+                "CREATE INDEX IF NOT EXISTS idx_history_timestamp ON history(timestamp)",
+                "CREATE INDEX IF NOT EXISTS idx_product_stock ON product(stock)",
+                "CREATE INDEX IF NOT EXISTS idx_product_price ON product(price)",
+                "CREATE INDEX IF NOT EXISTS idx_users_role ON users(role)");
+        // SQLite cannot change a column type: copy each table into one declared with INTEGER timestamps,
+        // keeping ids (the full-text indexes point at them) and the AUTOINCREMENT counter
+        add(7, "Store history and logs timestamps as INTEGER epoch millis",
+                "CREATE TABLE history_new ("
+                        + " id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                        + " username TEXT NOT NULL,"
+                        + " name TEXT NOT NULL,"
+                        + " stock INTEGER DEFAULT 0,"
+                        + " timestamp INTEGER NOT NULL)",
+                "INSERT INTO history_new(id, username, name, stock, timestamp)"
+                        + " SELECT id, username, name, stock, " + EPOCH_MILLIS + " FROM history",
+                "DELETE FROM sqlite_sequence WHERE name = 'history_new'",
+                "INSERT INTO sqlite_sequence(name, seq) SELECT 'history_new', seq FROM sqlite_sequence WHERE name = 'history'",
+                "DROP TABLE history",
+                "ALTER TABLE history_new RENAME TO history",
+                "CREATE INDEX IF NOT EXISTS idx_history_username ON history(username)",
+                "CREATE INDEX IF NOT EXISTS idx_history_name ON history(name)",
+                "CREATE INDEX IF NOT EXISTS idx_history_timestamp ON history(timestamp)",
+                "CREATE TABLE logs_new ("
+                        + " id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                        + " event TEXT NOT NULL,"
+                        + " username TEXT NOT NULL,"
+                        + " desc TEXT NOT NULL,"
+                        + " timestamp INTEGER NOT NULL)",
+                "INSERT INTO logs_new(id, event, username, desc, timestamp)"
+                        + " SELECT id, event, username, desc, " + EPOCH_MILLIS + " FROM logs",
+                "DELETE FROM sqlite_sequence WHERE name = 'logs_new'",
+                "INSERT INTO sqlite_sequence(name, seq) SELECT 'logs_new', seq FROM sqlite_sequence WHERE name = 'logs'",
+                "DROP TABLE logs",
+                "ALTER TABLE logs_new RENAME TO logs",
+                "CREATE INDEX IF NOT EXISTS idx_logs_timestamp ON logs(timestamp)",
+                "CREATE INDEX IF NOT EXISTS idx_logs_username_timestamp ON logs(username, timestamp)",
+                "CREATE INDEX IF NOT EXISTS idx_logs_event_timestamp ON logs(event, timestamp)");
+        // Dropping the old tables also dropped their full-text triggers
+        addOptional(8, "fts5", "Reattach the full-text indexes to the rebuilt history and logs",
+                concat(HISTORY_FTS, LOGS_FTS));
+    }
+
+    // Highest version known to this build
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            return readVersion(conn);
+        }
+    }
+
+    // Apply every migration newer than the database, returns the resulting version.
+    // Each migration runs under its own savepoint, so a skipped or failed migration only undoes its
+    // own changes, also when the migrator joins a caller's transaction (SQLite.inTransaction()),
+    // where commit() and setAutoCommit() do nothing and a plain rollback() would undo everything.
+    public int migrate() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            int current = readVersion(conn);
+            conn.setAutoCommit(false);
+            try {
+                for (Migration migration : migrations) {
+                    if (migration.version <= current) {
+                        continue;
+                    }
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        for (String sql : migration.statements) {
+                            stmt.execute(sql);
+                        }
+                        stmt.execute("PRAGMA user_version = " + migration.version);
+                        conn.releaseSavepoint(savepoint);
+                    } catch (SQLException ex) {
+                        conn.rollback(savepoint);
+                        if (!migration.isMissingModule(ex)) {
+                            throw new SQLException("Migration " + migration.version + " (" + migration.description + ") failed", ex);
+                        }
+                        conn.releaseSavepoint(savepoint);
+                        stmt.execute("PRAGMA user_version = " + migration.version);
+                        conn.commit();
+                        current = migration.version;
+                        System.out.println("Schema migration " + current + " skipped, SQLite has no " + migration.module + " module: " + migration.description);
+                        continue;
+                    }
+                    conn.commit();
+                    current = migration.version;
+                    System.out.println("Schema migrated to version " + current + ": " + migration.description);
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return current;
+        }
+    }
+
+    // Forget applied migrations, used after the tables they changed have been dropped
+    public void reset() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA user_version = 0");
+        }
+    }
+
+    private void add(int version, String description, String... statements) {
+        addOptional(version, null, description, statements);
+    }
+
+    // Migration that is skipped when SQLite lacks module
+    private void addOptional(int version, String module, String description, String... statements) {
+        if (!migrations.isEmpty() && version <= getLatestVersion()) {
+            throw new IllegalStateException("Migrations must be added in increasing version order");
+        }
+        migrations.add(new Migration(version, module, description, statements));
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] statements = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, statements, first.length, second.length);
+        return statements;
+    }
+
+    private int readVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static class Migration {
+
+        final int version;
+        final String module;
+        final String description;
+        final String[] statements;
+
+        Migration(int version, String module, String description, String[] statements) {
+            this.version = version;
+            this.module = module;
+            this.description = description;
+            this.statements = statements;
+        }
+
+        boolean isMissingModule(SQLException ex) {
+            return module != null && ex.getMessage() != null && ex.getMessage().contains("no such module: " + module);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package Controller;
+
+// Order of a management table query: by one column, ascending or descending, ties broken by id.
+// DEFAULT is insertion order (id ascending). SQLite only accepts the columns it has an index for.
+public class Sort {
+
+    public static final Sort DEFAULT = new Sort(null, false);
+
+    private final String column;
+    private final boolean descending;
+
+    public Sort(String column, boolean descending) {
+        this.column = column;
+        this.descending = descending;
+    }
+
+    // Column name, null for the default order
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public boolean isDefault() {
+        return column == null;
+    }
+}
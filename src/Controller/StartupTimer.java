@@ -0,0 +1,49 @@
+package Controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Records how long each startup phase takes and prints the breakdown
+public class StartupTimer {
+
+    private final long start = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long phaseStart = start;
+
+    // End the running phase under this name and start the next one
+    public synchronized void phase(String name) {
+        long now = System.nanoTime();
+        phases.merge(name, now - phaseStart, Long::sum);
+        phaseStart = now;
+    }
+
+    // Record a phase measured elsewhere (e.g. on another thread); phases running in parallel overlap
+    public synchronized void record(String name, long nanos) {
+        phases.merge(name, nanos, Long::sum);
+    }
+
+    // Wrap a task run on another thread so its duration is recorded under this name
+    public Runnable timed(String name, Runnable task) {
+        return () -> {
+            long taskStart = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(name, System.nanoTime() - taskStart);
+            }
+        };
+    }
+
+    // Record the time from startup until now, e.g. when the UI became interactive
+    public void mark(String name) {
+        record(name, System.nanoTime() - start);
+    }
+
+    public synchronized void print() {
+        System.out.println("Startup timing:");
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            System.out.println(String.format("  %-28s %8.1f ms", phase.getKey(), phase.getValue() / 1_000_000.0));
+        }
+        System.out.println(String.format("  %-28s %8.1f ms", "total", (System.nanoTime() - start) / 1_000_000.0));
+    }
+}
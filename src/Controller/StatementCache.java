@@ -0,0 +1,191 @@
+package Controller;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// LRU cache of prepared statements keyed by SQL text, owned by a single pooled connection.
+// The statements handed out are wrappers whose close() resets them for reuse; the real
+// statement is only closed when it is evicted or when its connection is discarded.
+class StatementCache {
+
+    private final Connection raw;
+    private final int capacity;
+    private final Stats stats;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(Connection raw, int capacity, Stats stats) {
+        this.raw = raw;
+        this.capacity = capacity;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        if (capacity <= 0) {
+            stats.misses.incrementAndGet();
+            return raw.prepareStatement(sql);
+        }
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.leased) {
+            // Same SQL already open on this connection (e.g. a nested query), do not share it
+            stats.misses.incrementAndGet();
+            return raw.prepareStatement(sql);
+        }
+        if (cached != null && cached.stmt.isClosed()) {
+            statements.remove(sql);
+            cached = null;
+        }
+        if (cached == null) {
+            stats.misses.incrementAndGet();
+            cached = new CachedStatement(raw.prepareStatement(sql));
+            statements.put(sql, cached);
+            evictOverflow();
+        } else {
+            stats.hits.incrementAndGet();
+        }
+        cached.leased = true;
+        return cached.lease();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedStatement>> it = statements.entrySet().iterator();
+        while (statements.size() > capacity && it.hasNext()) {
+            CachedStatement eldest = it.next().getValue();
+            if (eldest.leased) {
+                continue;
+            }
+            it.remove();
+            stats.evictions.incrementAndGet();
+            try {
+                eldest.stmt.close();
+            } catch (SQLException ex) {
+                // Statement is gone either way
+            }
+        }
+    }
+
+    // Hit/miss/eviction counters shared by every cache in a pool
+    static class Stats {
+
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+
+        double hitRate() {
+            long total = hits.get() + misses.get();
+            return total == 0 ? 0 : hits.get() / (double) total;
+        }
+    }
+
+    private static class CachedStatement {
+
+        final PreparedStatement stmt;
+        boolean leased = false;
+
+        CachedStatement(PreparedStatement stmt) {
+            this.stmt = stmt;
+        }
+
+        PreparedStatement lease() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Lease(this));
+        }
+    }
+
+    private static class Lease implements InvocationHandler {
+
+        private final CachedStatement cached;
+        private ResultSet lastResult;
+        private boolean batched = false;
+        private boolean returned = false;
+
+        Lease(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                if (!returned) {
+                    returned = true;
+                    reset();
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return returned || cached.stmt.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return "CachedStatement[" + cached.stmt + "]";
+            }
+            if (returned) {
+                throw new SQLException("Statement has already been closed");
+            }
+            if ("addBatch".equals(name)) {
+                batched = true;
+            }
+            try {
+                Object result = method.invoke(cached.stmt, args);
+                if (result instanceof ResultSet) {
+                    lastResult = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        // Release the SQLite cursor and bindings so the statement is clean for the next borrower
+        private void reset() {
+            if (batched) {
+                // The driver keeps batch-sized bindings after executeBatch(), which breaks a later
+                // executeUpdate() on the same statement, so batch statements are never reused
+                try {
+                    cached.stmt.close();
+                } catch (SQLException ignored) {
+                    // Dropped from the cache on next lookup
+                }
+                lastResult = null;
+                cached.leased = false;
+                return;
+            }
+            try {
+                if (lastResult != null) {
+                    lastResult.close();
+                }
+                cached.stmt.clearBatch();
+                cached.stmt.clearParameters();
+            } catch (SQLException ex) {
+                try {
+                    cached.stmt.close();
+                } catch (SQLException ignored) {
+                    // Dropped from the cache on next lookup
+                }
+            } finally {
+                lastResult = null;
+                cached.leased = false;
+            }
+        }
+    }
+}
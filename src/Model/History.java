@@ -6,9 +6,6 @@
 package Model;
 
 import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 
 /**
  *
@@ -20,27 +17,27 @@ public class History {
     private String username;
     private String name;
     private int stock;
-    private Timestamp timestamp;
-
-    private SimpleDateFormat dateformat = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss.SSS");
+    private float price;
+    private long timestamp; // Epoch millis, as stored in history.timestamp
     
     public History(String username, String name, int stock){
         this.username = username;
         this.name = name;
         this.stock = stock;
-        this.timestamp = new Timestamp(new Date().getTime());
+        this.timestamp = System.currentTimeMillis();
     }
     
-    public History(int id, String username, String name, int stock, String timestamp){
+    public History(int id, String username, String name, int stock, long timestamp){
         this.id = id;
         this.username = username;
         this.name = name;
         this.stock = stock;
-        try {
-            this.timestamp = new Timestamp(dateformat.parse(timestamp).getTime());
-        } catch (ParseException ex) {
-            ex.printStackTrace();
-        }
+        this.timestamp = timestamp;
+    }
+    
+    public History(int id, String username, String name, int stock, float price, long timestamp){
+        this(id, username, name, stock, timestamp);
+        this.price = price;
     }
     
     public int getId() {
@@ -75,11 +72,31 @@ public class History {
         this.stock = stock;
     }
     
+    public float getPrice() {
+        return price;
+    }
+
+    public void setPrice(float price) {
+        this.price = price;
+    }
+
+    public float getTotal() {
+        return price * stock;
+    }
+    
     public Timestamp getTimestamp() {
-        return timestamp;
+        return new Timestamp(timestamp);
     }
 
     public void setTimestamp(Timestamp timestamp) {
+        this.timestamp = timestamp.getTime();
+    }
+
+    public long getTimestampMillis() {
+        return timestamp;
+    }
+
+    public void setTimestampMillis(long timestamp) {
         this.timestamp = timestamp;
     }
 }
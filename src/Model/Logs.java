@@ -6,9 +6,6 @@
 package Model;
 
 import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 
 /**
  *
@@ -20,34 +17,28 @@ public class Logs {
     private String event;
     private String username;
     private String desc;
-    private Timestamp timestamp;
-
-    private SimpleDateFormat dateformat = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss.SSS");
+    private long timestamp; // Epoch millis, as stored in logs.timestamp
     
     public Logs(String event, String desc){
         this.event = event;
         this.username = "NONE";
         this.desc = desc;
-        this.timestamp = new Timestamp(new Date().getTime());
+        this.timestamp = System.currentTimeMillis();
     }
     
     public Logs(String event, String username, String desc){
         this.event = event;
         this.username = username;
         this.desc = desc;
-        this.timestamp = new Timestamp(new Date().getTime());
+        this.timestamp = System.currentTimeMillis();
     }
     
-    public Logs(int id, String event, String username, String desc, String timestamp){
+    public Logs(int id, String event, String username, String desc, long timestamp){
         this.id = id;
         this.event = event;
         this.username = username;
         this.desc = desc;
-        try {
-            this.timestamp = new Timestamp(dateformat.parse(timestamp).getTime());
-        } catch (ParseException ex) {
-            ex.printStackTrace();
-        }
+        this.timestamp = timestamp;
     }
     
     public int getId() {
@@ -83,10 +74,18 @@ public class Logs {
     }
 
     public Timestamp getTimestamp() {
-        return timestamp;
+        return new Timestamp(timestamp);
     }
 
     public void setTimestamp(Timestamp timestamp) {
+        this.timestamp = timestamp.getTime();
+    }
+
+    public long getTimestampMillis() {
+        return timestamp;
+    }
+
+    public void setTimestampMillis(long timestamp) {
         this.timestamp = timestamp;
     }
     
@@ -0,0 +1,124 @@
+package View;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.table.AbstractTableModel;
+
+// Read-only table model that keeps each column in its own array instead of one Vector per row.
+// Subclasses store numbers and timestamps in primitive arrays and only box a value when the
+// table asks for it in getValueAt. Every row also keeps its database id, which is not shown.
+public abstract class ColumnarTableModel<T> extends AbstractTableModel {
+
+    private final String[] columns;
+    private int[] ids = new int[0];
+    private int size = 0;
+
+    protected ColumnarTableModel(String... columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    // Database id of a row
+    public int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    // Append rows in one go, the columns grow once and the table gets one event
+    public void addAll(List<? extends T> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int first = size;
+        ensureCapacity(size + rows.size());
+        for (T row : rows) {
+            ids[size] = getId(row);
+            set(size, row);
+            size++;
+        }
+        fireTableRowsInserted(first, size - 1);
+    }
+
+    // Database ids of the rows selected in a table showing this model
+    public Set<Integer> getSelectedIds(JTable table) {
+        Set<Integer> selected = new HashSet<>();
+        for (int viewRow : table.getSelectedRows()) {
+            selected.add(ids[table.convertRowIndexToModel(viewRow)]);
+        }
+        return selected;
+    }
+
+    // Select the rows in [from, to) whose database id is in selected
+    public void select(JTable table, Set<Integer> selected, int from, int to) {
+        if (selected.isEmpty()) {
+            return;
+        }
+        ListSelectionModel selection = table.getSelectionModel();
+        selection.setValueIsAdjusting(true);
+        for (int row = from; row < to; row++) {
+            if (selected.contains(ids[row])) {
+                int viewRow = table.convertRowIndexToView(row);
+                selection.addSelectionInterval(viewRow, viewRow);
+            }
+        }
+        selection.setValueIsAdjusting(false);
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        int last = size - 1;
+        ids = new int[0];
+        size = 0;
+        resize(0);
+        fireTableRowsDeleted(0, last);
+    }
+
+    // Id of a model object, kept for every row
+    protected abstract int getId(T row);
+
+    // Copy a model object into the column arrays at this row
+    protected abstract void set(int row, T value);
+
+    // Resize every column array to this capacity
+    protected abstract void resize(int capacity);
+
+    protected void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        resize(grown);
+    }
+}
@@ -181,8 +181,7 @@ public class Frame extends javax.swing.JFrame {
 
     private void adminBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_adminBtnActionPerformed
         if (loggedInUser != null && loggedInUser.getRole() == 5) {
-            adminHomePnl.showPnl("home");
-            contentView.show(Content, "adminHomePnl");
+            showRoleHome();
         } else {
             System.out.println("Access Denied: You do not have Administrator privileges.");
         }
@@ -190,8 +189,7 @@ public class Frame extends javax.swing.JFrame {
 
     private void managerBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_managerBtnActionPerformed
         if (loggedInUser != null && loggedInUser.getRole() == 4) {
-            managerHomePnl.showPnl("home");
-            contentView.show(Content, "managerHomePnl");
+            showRoleHome();
         } else {
             System.out.println("Access Denied: You do not have Manager privileges.");
         }
@@ -199,8 +197,7 @@ public class Frame extends javax.swing.JFrame {
 
     private void staffBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_staffBtnActionPerformed
         if (loggedInUser != null && loggedInUser.getRole() == 3) {
-            staffHomePnl.showPnl("home");
-            contentView.show(Content, "staffHomePnl");
+            showRoleHome();
         } else {
             System.out.println("Access Denied: You do not have Staff privileges.");
         }
@@ -208,8 +205,7 @@ public class Frame extends javax.swing.JFrame {
 
     private void clientBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_clientBtnActionPerformed
         if (loggedInUser != null && loggedInUser.getRole() == 2) {
-            clientHomePnl.showPnl("home");
-            contentView.show(Content, "clientHomePnl");
+            showRoleHome();
         } else {
             System.out.println("Access Denied: You do not have Client privileges.");
         }
@@ -225,10 +221,8 @@ public class Frame extends javax.swing.JFrame {
     public Login loginPnl = new Login();
     public Register registerPnl = new Register();
     
-    private AdminHome adminHomePnl = new AdminHome();
-    private ManagerHome managerHomePnl = new ManagerHome();
-    private StaffHome staffHomePnl = new StaffHome();
-    private ClientHome clientHomePnl = new ClientHome();
+    // One home shell for every role, built on the first login, see mainNav
+    private RoleHome roleHomePnl;
     
     private CardLayout contentView = new CardLayout();
     private CardLayout frameView = new CardLayout();
@@ -241,10 +235,6 @@ public class Frame extends javax.swing.JFrame {
         
         loginPnl.frame = this;
         registerPnl.frame = this;
-        adminHomePnl.init(main.sqlite);
-        clientHomePnl.init(main.sqlite);
-        managerHomePnl.init(main.sqlite);
-        staffHomePnl.init(main.sqlite);
 
         Container.setLayout(frameView);
         Container.add(loginPnl, "loginPnl");
@@ -254,16 +244,12 @@ public class Frame extends javax.swing.JFrame {
         frameView.show(Container, "loginPnl");
 
         Content.setLayout(contentView);
-        Content.add(adminHomePnl, "adminHomePnl");
-        Content.add(managerHomePnl, "managerHomePnl");
-        Content.add(staffHomePnl, "staffHomePnl");
-        Content.add(clientHomePnl, "clientHomePnl");
+        Content.add(new javax.swing.JPanel(), "noHomePnl");
 
         this.setVisible(true);
     }
     
-    public void mainNav(){
-        User user = null;
+    public void mainNav(User user){
         // Store the logged-in user in the session
         this.loggedInUser = user;
 
@@ -273,9 +259,28 @@ public class Frame extends javax.swing.JFrame {
         staffBtn.setVisible(user.getRole() == 3); // Staff
         clientBtn.setVisible(user.getRole() == 2); // Client
 
+        // Build the shared home shell on first login, later logins only switch its role
+        if (roleHomePnl == null) {
+            roleHomePnl = new RoleHome();
+            roleHomePnl.init(main.sqlite);
+            Content.add(roleHomePnl, "roleHomePnl");
+        }
+        Role role = Role.of(user.getRole());
+        if (role != null) {
+            roleHomePnl.setRole(role);
+            showRoleHome();
+        } else {
+            contentView.show(Content, "noHomePnl"); // Role without a home, show nothing of the last session
+        }
+
         frameView.show(Container, "homePnl");
     }
     
+    private void showRoleHome(){
+        roleHomePnl.showPnl("home");
+        contentView.show(Content, "roleHomePnl");
+    }
+    
     public void loginNav(){
         frameView.show(Container, "loginPnl");
     }
@@ -289,7 +294,12 @@ public class Frame extends javax.swing.JFrame {
             System.out.println("Error: Passwords do not match.");
             return;
         }
-        main.sqlite.addUser(username, password, 2);
+        // Hashing and the insert run on the worker pool, so the EDT is never blocked
+        main.registerAsync(username, password, 2).whenComplete((done, error) -> {
+            if (error != null) {
+                System.out.println("Error: Registration failed. Please try again.");
+            }
+        });
     }
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -304,8 +314,4 @@ public class Frame extends javax.swing.JFrame {
     private javax.swing.JButton managerBtn;
     private javax.swing.JButton staffBtn;
     // End of variables declaration//GEN-END:variables
-
-    void mainNav(User user) {
-        throw new UnsupportedOperationException("Not supported yet."); // Generated from nbfs://nbhost/SystemFileSystem/Templates/Classes/Code/GeneratedMethodBody
-    }
 }
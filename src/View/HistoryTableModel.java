@@ -0,0 +1,29 @@
+package View;
+
+import Model.History;
+
+// History rows for MgmtHistory: Username, Name, Stock, Price, Total, Timestamp
+public class HistoryTableModel extends PagedTableModel<History> {
+
+    public HistoryTableModel() {
+        super("Username", "Name", "Stock", "Price", "Total", "Timestamp");
+    }
+
+    @Override
+    protected int getId(History row) {
+        return row.getId();
+    }
+
+    @Override
+    protected Object getColumnValue(History row, int column) {
+        switch (column) {
+            case 0: return row.getUsername();
+            case 1: return row.getName();
+            case 2: return row.getStock();
+            case 3: return row.getPrice();
+            case 4: return row.getTotal();
+            case 5: return row.getTimestamp();
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+}
@@ -18,6 +18,10 @@ public class Home extends javax.swing.JPanel {
      */
     public Home(String name, Color color) {
         initComponents();
+        setWelcome(name, color);
+    }
+    
+    public void setWelcome(String name, Color color) {
         userLbl.setText(name);
         setBackground(color);
     }
@@ -1,9 +1,8 @@
 package View;
 
-import Model.User;
-import java.sql.Timestamp;
-import java.util.Date;
-import org.mindrot.jbcrypt.BCrypt; // Import BCrypt
+import Controller.AuthResult;
+import java.awt.Cursor;
+import javax.swing.SwingUtilities;
 
 public class Login extends javax.swing.JPanel {
 
@@ -101,57 +100,56 @@ private void loginBtnActionPerformed(java.awt.event.ActionEvent evt) {
         return;
     }
 
-    // Fetch user from the database
-    User user = frame.main.sqlite.getUserByUsername(username);
+    // Hash check and database work run on the worker pool, the result is handled back on the EDT
+    setLoginInProgress(true);
+    frame.main.authenticateAsync(username, password).whenComplete((result, error) ->
+        SwingUtilities.invokeLater(() -> {
+            setLoginInProgress(false);
+            if (error != null) {
+                System.out.println("Error: Unable to log in right now. Please try again.");
+            } else {
+                handleLoginResult(result);
+            }
+        }));
+}                               
 
-    // Check if user exists and password matches
-    if (user != null && verifyPassword(password, user.getPassword())) {
-        // Check if the account is locked
-        if (user.getLocked() == 1) {
-            System.out.println("Error: Account is locked. Please contact the administrator.");
-            return;
+    // Runs on the EDT once authenticate() has finished
+    private void handleLoginResult(AuthResult result) {
+        switch (result.getStatus()) {
+            case SUCCESS:
+                passwordFld.setText("");
+                // Navigate to the main navigation panel
+                frame.mainNav(result.getUser());
+                break;
+            case ACCOUNT_LOCKED:
+                System.out.println("Error: Account is locked. Please contact the administrator.");
+                break;
+            case LOCKED_OUT:
+                System.out.println("Error: Too many failed login attempts. Account has been locked.");
+                break;
+            case INVALID_CREDENTIALS:
+                System.out.println("Error: Invalid username or password. Attempt " + result.getFailedAttempts() + " of " + frame.main.sqlite.MAX_LOGIN_ATTEMPTS + ".");
+                break;
+            default:
+                System.out.println("Error: Unable to log in right now. Please try again.");
+                break;
         }
+    }
 
-        // Log successful login attempt
-        logAuthenticationEvent(username, "SUCCESSFUL_LOGIN");
-
-        // Reset failed login counter
-        frame.main.sqlite.resetFailedLoginAttempts(username);
-
-        // Navigate to the main navigation panel
-        frame.mainNav(user);
-    } else {
-        // Increment failed login attempts
-        int failedAttempts = frame.main.sqlite.incrementFailedLoginAttempts(username);
-
-        // Log failed login attempt
-        logAuthenticationEvent(username, "FAILED_LOGIN");
-
-        // Check if account should be locked
-        if (failedAttempts >= 3) {
-            frame.main.sqlite.lockAccount(username);
-            System.out.println("Error: Too many failed login attempts. Account has been locked.");
-        } else {
-            System.out.println("Error: Invalid username or password. Attempt " + failedAttempts + " of 3.");
-        }
+    // Disable the form while a login attempt is being checked
+    private void setLoginInProgress(boolean inProgress) {
+        loginBtn.setEnabled(!inProgress);
+        registerBtn.setEnabled(!inProgress);
+        usernameFld.setEnabled(!inProgress);
+        passwordFld.setEnabled(!inProgress);
+        loginBtn.setText(inProgress ? "LOGGING IN..." : "LOGIN");
+        setCursor(inProgress ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
     }
-}                               
 
     private void registerBtnActionPerformed(java.awt.event.ActionEvent evt) {                                            
         frame.registerNav();
     }                                           
 
-    // Helper method to verify password using BCrypt
-    private boolean verifyPassword(String plainTextPassword, String hashedPassword) {
-        return BCrypt.checkpw(plainTextPassword, hashedPassword);
-    }
-
-    // Helper method to log authentication events
-    private void logAuthenticationEvent(String username, String event) {
-        String timestamp = new Timestamp(new Date().getTime()).toString();
-        frame.main.sqlite.addLogs(event, username, event.equals("SUCCESSFUL_LOGIN") ? "User logged in successfully" : "Failed login attempt", timestamp);
-    }
-
     // Variables declaration - do not modify                     
     private javax.swing.JLabel jLabel1;
     private javax.swing.JButton loginBtn;
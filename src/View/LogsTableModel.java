@@ -0,0 +1,27 @@
+package View;
+
+import Model.Logs;
+
+// Log rows for MgmtLogs: Event, Username, Description, Timestamp
+public class LogsTableModel extends PagedTableModel<Logs> {
+
+    public LogsTableModel() {
+        super("Event", "Username", "Description", "Timestamp");
+    }
+
+    @Override
+    protected int getId(Logs row) {
+        return row.getId();
+    }
+
+    @Override
+    protected Object getColumnValue(Logs row, int column) {
+        switch (column) {
+            case 0: return row.getEvent();
+            case 1: return row.getUsername();
+            case 2: return row.getDesc();
+            case 3: return row.getTimestamp();
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+}
@@ -6,12 +6,10 @@
 package View;
 
 import Controller.SQLite;
+import Controller.Sort;
 import Model.History;
-import Model.Product;
-import java.util.ArrayList;
-import javax.swing.JOptionPane;
+import java.util.List;
 import javax.swing.JTextField;
-import javax.swing.table.DefaultTableModel;
 
 /**
  *
@@ -20,12 +18,13 @@ import javax.swing.table.DefaultTableModel;
 public class MgmtHistory extends javax.swing.JPanel {
 
     public SQLite sqlite;
-    public DefaultTableModel tableModel;
+    public HistoryTableModel tableModel;
+    private SortableHeader sorter;
     
     public MgmtHistory(SQLite sqlite) {
         initComponents();
         this.sqlite = sqlite;
-        tableModel = (DefaultTableModel)table.getModel();
+        tableModel = (HistoryTableModel)table.getModel();
         table.getTableHeader().setFont(new java.awt.Font("SansSerif", java.awt.Font.BOLD, 14));
         javax.swing.table.DefaultTableCellRenderer rightAlign = new javax.swing.table.DefaultTableCellRenderer();
         rightAlign.setHorizontalAlignment(javax.swing.JLabel.RIGHT);
@@ -33,31 +32,63 @@ public class MgmtHistory extends javax.swing.JPanel {
         table.getColumnModel().getColumn(3).setCellRenderer(rightAlign);
         table.getColumnModel().getColumn(4).setCellRenderer(rightAlign);
         table.getColumnModel().getColumn(5).setCellRenderer(rightAlign);
+        sorter = SortableHeader.install(table, sort -> init(), "username", "name", null, null, null, "timestamp");
+        SearchDebouncer.attach(searchFld, tableModel::cancel, this::search);
         
 //        UNCOMMENT TO DISABLE BUTTONS
-//        searchBtn.setVisible(false);
+//        searchFld.setVisible(false);
 //        reportBtn.setVisible(false);
     }
 
     public void init(){
-//      CLEAR TABLE
-        for(int nCtr = tableModel.getRowCount(); nCtr > 0; nCtr--){
-            tableModel.removeRow(0);
-        }
-        
 //      LOAD CONTENTS
-        ArrayList<History> history = sqlite.getHistory();
-        for(int nCtr = 0; nCtr < history.size(); nCtr++){
-            Product product = sqlite.getProduct(history.get(nCtr).getName());
-            tableModel.addRow(new Object[]{
-                history.get(nCtr).getUsername(), 
-                history.get(nCtr).getName(), 
-                history.get(nCtr).getStock(), 
-                product.getPrice(), 
-                product.getPrice() * history.get(nCtr).getStock(), 
-                history.get(nCtr).getTimestamp()
-            });
+        // How the search matches depends on whether the driver has FTS5, see SQLite.searchHistory()
+        searchFld.setToolTipText(sqlite.hasSearchIndex("history_fts")
+                ? "Matches usernames and product names by the start of their words: \"anti\" finds Antivirus, \"virus\" does not"
+                : "Matches usernames and product names containing the text, or contained in it (case-sensitive)");
+        search(searchFld.getText().trim());
+    }
+    
+    // Page through every history entry, oldest first unless sorted by a column
+    private void load(){
+        Sort sort = sorter.getSort();
+        tableModel.load(new PagedTableModel.Source<History>() {
+            @Override
+            public int count() {
+                return sqlite.countHistory(null);
+            }
+
+            @Override
+            public List<History> fetch(int afterId, int offset, int limit) {
+                return sqlite.getHistoryWithPricingPage(afterId, offset, limit, null, sort);
+            }
+        }, table);
+    }
+    
+    // Page through the history entries matching query, best match first unless sorted by a column,
+    // see SQLite.searchHistory(). An empty query shows every entry
+    private void search(String query){
+        if (query.isEmpty()) {
+            load();
+            return;
         }
+        Sort sort = sorter.getSort();
+        tableModel.load(new PagedTableModel.Source<History>() {
+            @Override
+            public int count() {
+                return sqlite.countSearchHistory(query);
+            }
+
+            @Override
+            public List<History> fetch(int afterId, int offset, int limit) {
+                return sqlite.searchHistory(query, afterId, offset, limit, sort);
+            }
+
+            @Override
+            public boolean isKeyed() {
+                return !sort.isDefault(); // Ranked pages can only be fetched by offset
+            }
+        }, table);
     }
     
     public void designer(JTextField component, String text){
@@ -79,29 +110,11 @@ public class MgmtHistory extends javax.swing.JPanel {
 
         jScrollPane1 = new javax.swing.JScrollPane();
         table = new javax.swing.JTable();
-        searchBtn = new javax.swing.JButton();
+        searchFld = new javax.swing.JTextField();
         reloadBtn = new javax.swing.JButton();
 
         table.setFont(new java.awt.Font("SansSerif", 0, 14)); // NOI18N
-        table.setModel(new javax.swing.table.DefaultTableModel(
-            new Object [][] {
-                {null, null, null, null, null, null},
-                {null, null, null, null, null, null},
-                {null, null, null, null, null, null},
-                {null, null, null, null, null, null}
-            },
-            new String [] {
-                "Username", "Name", "Stock", "Price", "Total", "Timestamp"
-            }
-        ) {
-            boolean[] canEdit = new boolean [] {
-                false, false, false, false, false, false
-            };
-
-            public boolean isCellEditable(int rowIndex, int columnIndex) {
-                return canEdit [columnIndex];
-            }
-        });
+        table.setModel(new HistoryTableModel());
         table.setRowHeight(24);
         table.getTableHeader().setReorderingAllowed(false);
         jScrollPane1.setViewportView(table);
@@ -114,14 +127,8 @@ public class MgmtHistory extends javax.swing.JPanel {
             table.getColumnModel().getColumn(5).setPreferredWidth(240);
         }
 
-        searchBtn.setBackground(new java.awt.Color(255, 255, 255));
-        searchBtn.setFont(new java.awt.Font("Tahoma", 1, 14)); // NOI18N
-        searchBtn.setText("SEARCH USERNAME OR PRODUCT");
-        searchBtn.addActionListener(new java.awt.event.ActionListener() {
-            public void actionPerformed(java.awt.event.ActionEvent evt) {
-                searchBtnActionPerformed(evt);
-            }
-        });
+        searchFld.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        searchFld.setBorder(javax.swing.BorderFactory.createTitledBorder("SEARCH USERNAME OR PRODUCT"));
 
         reloadBtn.setBackground(new java.awt.Color(255, 255, 255));
         reloadBtn.setFont(new java.awt.Font("Tahoma", 1, 14)); // NOI18N
@@ -140,7 +147,7 @@ public class MgmtHistory extends javax.swing.JPanel {
                 .addGap(0, 0, 0)
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                     .addGroup(layout.createSequentialGroup()
-                        .addComponent(searchBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addComponent(searchFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                         .addGap(0, 0, 0)
                         .addComponent(reloadBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
                     .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 424, Short.MAX_VALUE))
@@ -153,49 +160,11 @@ public class MgmtHistory extends javax.swing.JPanel {
                 .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 222, Short.MAX_VALUE)
                 .addGap(0, 0, 0)
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
-                    .addComponent(searchBtn, javax.swing.GroupLayout.DEFAULT_SIZE, 41, Short.MAX_VALUE)
+                    .addComponent(searchFld, javax.swing.GroupLayout.DEFAULT_SIZE, 41, Short.MAX_VALUE)
                     .addComponent(reloadBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)))
         );
     }// </editor-fold>//GEN-END:initComponents
 
-    private void searchBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_searchBtnActionPerformed
-        JTextField searchFld = new JTextField("0");
-        designer(searchFld, "SEARCH USERNAME OR PRODUCT");
-
-        Object[] message = {
-            searchFld
-        };
-
-        int result = JOptionPane.showConfirmDialog(null, message, "SEARCH HISTORY", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE, null);
-
-        if (result == JOptionPane.OK_OPTION) {
-//          CLEAR TABLE
-            for(int nCtr = tableModel.getRowCount(); nCtr > 0; nCtr--){
-                tableModel.removeRow(0);
-            }
-
-//          LOAD CONTENTS
-            ArrayList<History> history = sqlite.getHistory();
-            for(int nCtr = 0; nCtr < history.size(); nCtr++){
-                if(searchFld.getText().contains(history.get(nCtr).getUsername()) || 
-                   history.get(nCtr).getUsername().contains(searchFld.getText()) || 
-                   searchFld.getText().contains(history.get(nCtr).getName()) || 
-                   history.get(nCtr).getName().contains(searchFld.getText())){
-                
-                    Product product = sqlite.getProduct(history.get(nCtr).getName());
-                    tableModel.addRow(new Object[]{
-                        history.get(nCtr).getUsername(), 
-                        history.get(nCtr).getName(), 
-                        history.get(nCtr).getStock(), 
-                        product.getPrice(), 
-                        product.getPrice() * history.get(nCtr).getStock(), 
-                        history.get(nCtr).getTimestamp()
-                    });
-                }
-            }
-        }
-    }//GEN-LAST:event_searchBtnActionPerformed
-
     private void reloadBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_reloadBtnActionPerformed
         init();
     }//GEN-LAST:event_reloadBtnActionPerformed
@@ -204,7 +173,7 @@ public class MgmtHistory extends javax.swing.JPanel {
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JScrollPane jScrollPane1;
     private javax.swing.JButton reloadBtn;
-    private javax.swing.JButton searchBtn;
+    private javax.swing.JTextField searchFld;
     private javax.swing.JTable table;
     // End of variables declaration//GEN-END:variables
 }
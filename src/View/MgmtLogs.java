@@ -5,10 +5,13 @@
  */
 package View;
 
+import Controller.LogFilter;
 import Controller.SQLite;
+import Controller.Sort;
 import Model.Logs;
-import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
+import java.sql.Timestamp;
+import java.util.List;
+import javax.swing.JOptionPane;
 
 /**
  *
@@ -17,13 +20,17 @@ import javax.swing.table.DefaultTableModel;
 public class MgmtLogs extends javax.swing.JPanel {
 
     public SQLite sqlite;
-    public DefaultTableModel tableModel;
+    public LogsTableModel tableModel;
+    private LogFilter filter = LogFilter.ALL;
+    private SortableHeader sorter;
     
     public MgmtLogs(SQLite sqlite) {
         initComponents();
         this.sqlite = sqlite;
-        tableModel = (DefaultTableModel)table.getModel();
+        tableModel = (LogsTableModel)table.getModel();
         table.getTableHeader().setFont(new java.awt.Font("SansSerif", java.awt.Font.BOLD, 14));
+        sorter = SortableHeader.install(table, sort -> init(), "event", "username", null, "timestamp");
+        SearchDebouncer.attach(textFld, tableModel::cancel, text -> filter(false));
         
 //        UNCOMMENT TO DISABLE BUTTONS
 //        clearBtn.setVisible(false);
@@ -31,21 +38,58 @@ public class MgmtLogs extends javax.swing.JPanel {
     }
 
     public void init(){
-        //      CLEAR TABLE
-        for(int nCtr = tableModel.getRowCount(); nCtr > 0; nCtr--){
-            tableModel.removeRow(0);
-        }
-        
 //      LOAD CONTENTS
-        ArrayList<Logs> logs = sqlite.getLogs();
-        for(int nCtr = 0; nCtr < logs.size(); nCtr++){
-            tableModel.addRow(new Object[]{
-                logs.get(nCtr).getEvent(), 
-                logs.get(nCtr).getUsername(), 
-                logs.get(nCtr).getDesc(), 
-                logs.get(nCtr).getTimestamp()});
+        LogFilter current = filter;
+        Sort sort = sorter.getSort();
+        tableModel.load(new PagedTableModel.Source<Logs>() {
+            @Override
+            public int count() {
+                return sqlite.countLogs(current);
+            }
+
+            @Override
+            public List<Logs> fetch(int afterId, int offset, int limit) {
+                return sqlite.searchLogs(current, afterId, offset, limit, sort);
+            }
+        }, table);
+    }
+    
+    // Reload with the criteria in the filter bar. Invalid times are reported when report is set,
+    // otherwise (typing in DESCRIPTION) the table reloads with the previous filter until they are fixed:
+    // the keystroke already cancelled its loading, which would leave blank rows behind
+    private void filter(boolean report){
+        Timestamp from;
+        Timestamp to;
+        try {
+            from = parseTime(fromFld.getText(), false);
+            to = parseTime(toFld.getText(), true);
+        } catch (IllegalArgumentException ex) {
+            if (report) {
+                JOptionPane.showMessageDialog(this, "Error: Enter times as yyyy-MM-dd or yyyy-MM-dd HH:mm.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                init();
+            }
+            return;
+        }
+        filter = new LogFilter((String) eventBox.getSelectedItem(), usernameFld.getText(), from, to, textFld.getText());
+        init();
+    }
+    
+    // Parse "yyyy-MM-dd" or "yyyy-MM-dd HH:mm[:ss]", null when empty. A date without a time means the
+    // start of that day, or its end when endOfDay is set (same for a time without seconds).
+    private Timestamp parseTime(String text, boolean endOfDay){
+        text = text.trim();
+        if (text.isEmpty()) {
+            return null;
         }
+        if (text.length() == 10) {
+            text += endOfDay ? " 23:59:59.999" : " 00:00:00";
+        } else if (text.length() == 16) {
+            text += endOfDay ? ":59.999" : ":00";
+        }
+        return Timestamp.valueOf(text);
     }
+    
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -59,27 +103,15 @@ public class MgmtLogs extends javax.swing.JPanel {
         table = new javax.swing.JTable();
         clearBtn = new javax.swing.JButton();
         debugBtn = new javax.swing.JButton();
+        eventBox = new javax.swing.JComboBox<>();
+        usernameFld = new javax.swing.JTextField();
+        fromFld = new javax.swing.JTextField();
+        toFld = new javax.swing.JTextField();
+        textFld = new javax.swing.JTextField();
+        filterBtn = new javax.swing.JButton();
 
         table.setFont(new java.awt.Font("SansSerif", 0, 14)); // NOI18N
-        table.setModel(new javax.swing.table.DefaultTableModel(
-            new Object [][] {
-                {null, null, null, null},
-                {null, null, null, null},
-                {null, null, null, null},
-                {null, null, null, null}
-            },
-            new String [] {
-                "Event", "Username", "Description", "Timestamp"
-            }
-        ) {
-            boolean[] canEdit = new boolean [] {
-                false, false, false, false
-            };
-
-            public boolean isCellEditable(int rowIndex, int columnIndex) {
-                return canEdit [columnIndex];
-            }
-        });
+        table.setModel(new LogsTableModel());
         table.setRowHeight(24);
         table.getTableHeader().setReorderingAllowed(false);
         jScrollPane1.setViewportView(table);
@@ -109,6 +141,49 @@ public class MgmtLogs extends javax.swing.JPanel {
             }
         });
 
+        eventBox.setEditable(true);
+        eventBox.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        eventBox.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "", "NOTICE", "SUCCESSFUL_LOGIN", "FAILED_LOGIN" }));
+        eventBox.setBorder(javax.swing.BorderFactory.createTitledBorder("EVENT"));
+
+        usernameFld.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        usernameFld.setBorder(javax.swing.BorderFactory.createTitledBorder("USERNAME"));
+        usernameFld.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                filterBtnActionPerformed(evt);
+            }
+        });
+
+        fromFld.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        fromFld.setToolTipText("yyyy-MM-dd or yyyy-MM-dd HH:mm");
+        fromFld.setBorder(javax.swing.BorderFactory.createTitledBorder("FROM"));
+        fromFld.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                filterBtnActionPerformed(evt);
+            }
+        });
+
+        toFld.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        toFld.setToolTipText("yyyy-MM-dd or yyyy-MM-dd HH:mm");
+        toFld.setBorder(javax.swing.BorderFactory.createTitledBorder("TO"));
+        toFld.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                filterBtnActionPerformed(evt);
+            }
+        });
+
+        textFld.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        textFld.setBorder(javax.swing.BorderFactory.createTitledBorder("DESCRIPTION"));
+
+        filterBtn.setBackground(new java.awt.Color(255, 255, 255));
+        filterBtn.setFont(new java.awt.Font("Tahoma", 1, 14)); // NOI18N
+        filterBtn.setText("FILTER");
+        filterBtn.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                filterBtnActionPerformed(evt);
+            }
+        });
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -116,6 +191,18 @@ public class MgmtLogs extends javax.swing.JPanel {
             .addGroup(layout.createSequentialGroup()
                 .addGap(0, 0, 0)
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addGroup(layout.createSequentialGroup()
+                        .addComponent(eventBox, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addGap(0, 0, 0)
+                        .addComponent(usernameFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addGap(0, 0, 0)
+                        .addComponent(fromFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addGap(0, 0, 0)
+                        .addComponent(toFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addGap(0, 0, 0)
+                        .addComponent(textFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                        .addGap(0, 0, 0)
+                        .addComponent(filterBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
                     .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 412, Short.MAX_VALUE)
                     .addGroup(layout.createSequentialGroup()
                         .addComponent(debugBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
@@ -126,6 +213,14 @@ public class MgmtLogs extends javax.swing.JPanel {
             layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(layout.createSequentialGroup()
                 .addGap(0, 0, 0)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
+                    .addComponent(eventBox, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addComponent(usernameFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addComponent(fromFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addComponent(toFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addComponent(textFld, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                    .addComponent(filterBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+                .addGap(0, 0, 0)
                 .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 222, Short.MAX_VALUE)
                 .addGap(0, 0, 0)
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
@@ -145,11 +240,21 @@ public class MgmtLogs extends javax.swing.JPanel {
             sqlite.DEBUG_MODE = 1;
     }//GEN-LAST:event_debugBtnActionPerformed
 
+    private void filterBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_filterBtnActionPerformed
+        filter(true);
+    }//GEN-LAST:event_filterBtnActionPerformed
+
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton clearBtn;
     private javax.swing.JButton debugBtn;
+    private javax.swing.JComboBox<String> eventBox;
+    private javax.swing.JButton filterBtn;
+    private javax.swing.JTextField fromFld;
     private javax.swing.JScrollPane jScrollPane1;
     private javax.swing.JTable table;
+    private javax.swing.JTextField textFld;
+    private javax.swing.JTextField toFld;
+    private javax.swing.JTextField usernameFld;
     // End of variables declaration//GEN-END:variables
 }
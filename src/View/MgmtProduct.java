@@ -6,12 +6,10 @@
 package View;
 
 import Controller.SQLite;
-import Model.Product;
-import java.util.ArrayList;
+import Controller.Sort;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
-import javax.swing.table.DefaultTableModel;
 
 /**
  *
@@ -20,13 +18,17 @@ import javax.swing.table.DefaultTableModel;
 public class MgmtProduct extends javax.swing.JPanel {
 
     public SQLite sqlite;
-    public DefaultTableModel tableModel;
+    public ProductTableModel tableModel;
+    private TableLoader<?> loader;
+    private SortableHeader sorter;
     
     public MgmtProduct(SQLite sqlite) {
         initComponents();
         this.sqlite = sqlite;
-        tableModel = (DefaultTableModel)table.getModel();
+        tableModel = (ProductTableModel)table.getModel();
         table.getTableHeader().setFont(new java.awt.Font("SansSerif", java.awt.Font.BOLD, 14));
+        sorter = SortableHeader.install(table, sort -> init(), "name", "stock", "price");
+        SearchDebouncer.attach(searchFld, this::stopLoading, search -> init());
 
 //        UNCOMMENT TO DISABLE BUTTONS
 //        purchaseBtn.setVisible(false);
@@ -36,21 +38,19 @@ public class MgmtProduct extends javax.swing.JPanel {
     }
 
     public void init(){
-        //      CLEAR TABLE
-        for(int nCtr = tableModel.getRowCount(); nCtr > 0; nCtr--){
-            tableModel.removeRow(0);
-        }
-        
 //      LOAD CONTENTS
-        ArrayList<Product> products = sqlite.getProduct();
-        for(int nCtr = 0; nCtr < products.size(); nCtr++){
-            tableModel.addRow(new Object[]{
-                products.get(nCtr).getName(), 
-                products.get(nCtr).getStock(), 
-                products.get(nCtr).getPrice()});
-        }
+        String search = searchFld.getText().trim();
+        Sort sort = sorter.getSort();
+        loader = TableLoader.load(loader, tableModel, table, jScrollPane1, () -> sqlite.streamProducts(search, sort));
     }
     
+    // Abort the load in flight, a new search is coming
+    private void stopLoading(){
+        if (loader != null) {
+            loader.stop();
+        }
+    }
+
     public void designer(JTextField component, String text){
         component.setSize(70, 600);
         component.setFont(new java.awt.Font("Tahoma", 0, 18));
@@ -74,27 +74,10 @@ public class MgmtProduct extends javax.swing.JPanel {
         addBtn = new javax.swing.JButton();
         editBtn = new javax.swing.JButton();
         deleteBtn = new javax.swing.JButton();
+        searchFld = new javax.swing.JTextField();
 
         table.setFont(new java.awt.Font("SansSerif", 0, 14)); // NOI18N
-        table.setModel(new javax.swing.table.DefaultTableModel(
-            new Object [][] {
-                {null, null, null},
-                {null, null, null},
-                {null, null, null},
-                {null, null, null}
-            },
-            new String [] {
-                "Name", "Stock", "Price"
-            }
-        ) {
-            boolean[] canEdit = new boolean [] {
-                false, false, false
-            };
-
-            public boolean isCellEditable(int rowIndex, int columnIndex) {
-                return canEdit [columnIndex];
-            }
-        });
+        table.setModel(new ProductTableModel());
         table.setRowHeight(24);
         table.getTableHeader().setReorderingAllowed(false);
         jScrollPane1.setViewportView(table);
@@ -141,6 +124,9 @@ public class MgmtProduct extends javax.swing.JPanel {
             }
         });
 
+        searchFld.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        searchFld.setBorder(javax.swing.BorderFactory.createTitledBorder("SEARCH PRODUCT NAME"));
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -156,12 +142,15 @@ public class MgmtProduct extends javax.swing.JPanel {
                         .addComponent(editBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                         .addGap(0, 0, 0)
                         .addComponent(deleteBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
-                    .addComponent(jScrollPane1))
+                    .addComponent(jScrollPane1)
+                    .addComponent(searchFld))
                 .addGap(0, 0, 0))
         );
         layout.setVerticalGroup(
             layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(layout.createSequentialGroup()
+                .addGap(0, 0, 0)
+                .addComponent(searchFld, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addGap(0, 0, 0)
                 .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 222, Short.MAX_VALUE)
                 .addGap(0, 0, 0)
@@ -253,6 +242,7 @@ public class MgmtProduct extends javax.swing.JPanel {
     private javax.swing.JButton editBtn;
     private javax.swing.JScrollPane jScrollPane1;
     private javax.swing.JButton purchaseBtn;
+    private javax.swing.JTextField searchFld;
     private javax.swing.JTable table;
     // End of variables declaration//GEN-END:variables
 }
@@ -6,15 +6,13 @@
 package View;
 
 import Controller.SQLite;
-import Model.User;
-import java.util.ArrayList;
+import Controller.Sort;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
-import javax.swing.table.DefaultTableModel;
 
 /**
  *
@@ -23,13 +21,17 @@ import javax.swing.table.DefaultTableModel;
 public class MgmtUser extends javax.swing.JPanel {
 
     public SQLite sqlite;
-    public DefaultTableModel tableModel;
+    public UserTableModel tableModel;
+    private TableLoader<?> loader;
+    private SortableHeader sorter;
     
     public MgmtUser(SQLite sqlite) {
         initComponents();
         this.sqlite = sqlite;
-        tableModel = (DefaultTableModel)table.getModel();
+        tableModel = (UserTableModel)table.getModel();
         table.getTableHeader().setFont(new java.awt.Font("SansSerif", java.awt.Font.BOLD, 14));
+        sorter = SortableHeader.install(table, sort -> init(), "username", null, "role", null);
+        SearchDebouncer.attach(searchFld, this::stopLoading, search -> init());
         
 //        UNCOMMENT TO DISABLE BUTTONS
 //        editBtn.setVisible(false);
@@ -39,19 +41,16 @@ public class MgmtUser extends javax.swing.JPanel {
     }
     
     public void init(){
-        //      CLEAR TABLE
-        for(int nCtr = tableModel.getRowCount(); nCtr > 0; nCtr--){
-            tableModel.removeRow(0);
-        }
-        
 //      LOAD CONTENTS
-        ArrayList<User> users = sqlite.getUsers();
-        for(int nCtr = 0; nCtr < users.size(); nCtr++){
-            tableModel.addRow(new Object[]{
-                users.get(nCtr).getUsername(), 
-                users.get(nCtr).getPassword(), 
-                users.get(nCtr).getRole(), 
-                users.get(nCtr).getLocked()});
+        String search = searchFld.getText().trim();
+        Sort sort = sorter.getSort();
+        loader = TableLoader.load(loader, tableModel, table, jScrollPane1, () -> sqlite.streamUsers(search, sort));
+    }
+
+    // Abort the load in flight, a new search is coming
+    private void stopLoading(){
+        if (loader != null) {
+            loader.stop();
         }
     }
 
@@ -78,27 +77,10 @@ public class MgmtUser extends javax.swing.JPanel {
         deleteBtn = new javax.swing.JButton();
         lockBtn = new javax.swing.JButton();
         chgpassBtn = new javax.swing.JButton();
+        searchFld = new javax.swing.JTextField();
 
         table.setFont(new java.awt.Font("SansSerif", 0, 14)); // NOI18N
-        table.setModel(new javax.swing.table.DefaultTableModel(
-            new Object [][] {
-                {null, null, null, null},
-                {null, null, null, null},
-                {null, null, null, null},
-                {null, null, null, null}
-            },
-            new String [] {
-                "Username", "Password", "Role", "Locked"
-            }
-        ) {
-            boolean[] canEdit = new boolean [] {
-                false, false, false, false
-            };
-
-            public boolean isCellEditable(int rowIndex, int columnIndex) {
-                return canEdit [columnIndex];
-            }
-        });
+        table.setModel(new UserTableModel());
         table.setRowHeight(24);
         table.getTableHeader().setReorderingAllowed(false);
         jScrollPane1.setViewportView(table);
@@ -146,6 +128,9 @@ public class MgmtUser extends javax.swing.JPanel {
             }
         });
 
+        searchFld.setFont(new java.awt.Font("Tahoma", 0, 14)); // NOI18N
+        searchFld.setBorder(javax.swing.BorderFactory.createTitledBorder("SEARCH USERNAME"));
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -161,12 +146,15 @@ public class MgmtUser extends javax.swing.JPanel {
                         .addComponent(lockBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                         .addGap(0, 0, 0)
                         .addComponent(chgpassBtn, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
-                    .addComponent(jScrollPane1))
+                    .addComponent(jScrollPane1)
+                    .addComponent(searchFld))
                 .addGap(0, 0, 0))
         );
         layout.setVerticalGroup(
             layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(layout.createSequentialGroup()
+                .addGap(0, 0, 0)
+                .addComponent(searchFld, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addGap(0, 0, 0)
                 .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 222, Short.MAX_VALUE)
                 .addGap(0, 0, 0)
@@ -247,6 +235,7 @@ public class MgmtUser extends javax.swing.JPanel {
     private javax.swing.JButton editRoleBtn;
     private javax.swing.JScrollPane jScrollPane1;
     private javax.swing.JButton lockBtn;
+    private javax.swing.JTextField searchFld;
     private javax.swing.JTable table;
     // End of variables declaration//GEN-END:variables
 }
@@ -0,0 +1,232 @@
+package View;
+
+import Controller.Cancellation;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.table.AbstractTableModel;
+
+// Read-only table model that only holds the pages of rows the user has scrolled to.
+// It knows the total row count, and when the table asks for a row it does not have it fetches that
+// page of PAGE_SIZE rows on a background thread and shows empty cells until the page arrives.
+// The last MAX_PAGES pages used are kept, and the next page in the scroll direction is fetched
+// ahead of time. A page right after a cached page is fetched by key (id > last id), any other
+// page by offset. Loading another source cancels the queries still running for the old one.
+// All state is only touched on the EDT.
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+
+    // Where the rows come from, see SQLite.getLogsPage()
+    public interface Source<T> {
+        int count();
+        List<T> fetch(int afterId, int offset, int limit);
+
+        // False for sources not ordered by id (e.g. ranked searches), those are always fetched by offset
+        default boolean isKeyed() {
+            return true;
+        }
+    }
+
+    public static final int PAGE_SIZE = 100;
+    public static final int MAX_PAGES = 30;
+
+    // One thread for every paged table, page queries run in the order they were asked for
+    private static final ExecutorService FETCHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "table-pager");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String[] columns;
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+    private final Set<Integer> pending = new HashSet<>();
+    // Ids of the rows to select again as their pages arrive, forgotten once the user changes the selection
+    private final Set<Integer> reselect = new HashSet<>();
+    private boolean restoring = false;
+    private final ListSelectionListener userSelection = evt -> {
+        if (!restoring) {
+            reselect.clear();
+        }
+    };
+    private JTable table;
+    private Source<T> source;
+    private Cancellation cancellation = new Cancellation();
+    private int rowCount = 0;
+    private int generation = 0;
+    private int lastPage = 0;
+
+    protected PagedTableModel(String... columns) {
+        this.columns = columns;
+    }
+
+    // Show the rows of a source: counts them in the background, then the table asks for what it shows.
+    // Rows selected in the table are selected again by id wherever the new source puts them, as their
+    // pages arrive.
+    public void load(Source<T> source, JTable table) {
+        if (this.table != table) {
+            if (this.table != null) {
+                this.table.getSelectionModel().removeListSelectionListener(userSelection);
+            }
+            table.getSelectionModel().addListSelectionListener(userSelection);
+            this.table = table;
+        }
+        Set<Integer> selected = getSelectedIds();
+        cancel();
+        reselect.addAll(selected);
+        this.source = source;
+        pages.clear();
+        lastPage = 0;
+
+        int current = generation;
+        Cancellation queries = cancellation;
+        FETCHER.execute(() -> {
+            int count = queries.run(source::count);
+            SwingUtilities.invokeLater(() -> counted(current, count));
+        });
+    }
+
+    // Abort the queries of the current source, e.g. because a new search is about to replace it.
+    // Rows already fetched stay visible, the others stay empty until the next load().
+    public void cancel() {
+        cancellation.cancel();
+        cancellation = new Cancellation();
+        source = null;
+        generation++;
+        pending.clear();
+        reselect.clear();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        if (page != lastPage) {
+            request(page + (page > lastPage ? 1 : -1)); // Prefetch in the scroll direction
+            lastPage = page;
+        }
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            return null;
+        }
+        int index = row % PAGE_SIZE;
+        return index < rows.size() ? getColumnValue(rows.get(index), column) : null;
+    }
+
+    // Number of pages currently held
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    // Database id of a model object, used to fetch the page after it by key
+    protected abstract int getId(T row);
+
+    protected abstract Object getColumnValue(T row, int column);
+
+    private void request(int page) {
+        if (source == null || page < 0 || page * PAGE_SIZE >= rowCount || pending.contains(page) || pages.containsKey(page)) {
+            return;
+        }
+        pending.add(page);
+        List<T> previous = source.isKeyed() ? pages.get(page - 1) : null;
+        int afterId = previous != null && previous.size() == PAGE_SIZE ? getId(previous.get(PAGE_SIZE - 1)) : 0;
+        int offset = afterId > 0 ? 0 : page * PAGE_SIZE;
+
+        Source<T> from = source;
+        int current = generation;
+        Cancellation queries = cancellation;
+        FETCHER.execute(() -> {
+            List<T> rows = queries.run(() -> from.fetch(afterId, offset, PAGE_SIZE));
+            SwingUtilities.invokeLater(() -> fetched(current, page, rows));
+        });
+    }
+
+    private void fetched(int current, int page, List<T> rows) {
+        if (current != generation) {
+            return; // Loaded for a source that has been replaced since
+        }
+        pending.remove(page);
+        int first = page * PAGE_SIZE;
+        int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+        if (rows.isEmpty() && last >= first) {
+            return; // The query failed (e.g. a busy database), leave the page missing so it is asked for again
+        }
+        pages.put(page, rows);
+        if (last >= first) {
+            fireTableRowsUpdated(first, last);
+            select(first, rows);
+        }
+    }
+
+    private void counted(int current, int count) {
+        if (current != generation) {
+            return;
+        }
+        rowCount = count;
+        restoring = true; // Clears the selection, the selected ids are still to be restored
+        fireTableDataChanged();
+        restoring = false;
+    }
+
+    // Ids of the selected rows whose page is held
+    private Set<Integer> getSelectedIds() {
+        Set<Integer> selected = new HashSet<>();
+        for (int viewRow : table.getSelectedRows()) {
+            int row = table.convertRowIndexToModel(viewRow);
+            List<T> rows = pages.get(row / PAGE_SIZE);
+            if (rows != null && row % PAGE_SIZE < rows.size()) {
+                selected.add(getId(rows.get(row % PAGE_SIZE)));
+            }
+        }
+        return selected;
+    }
+
+    // Select the rows of a page that arrived, starting at model row first, whose id is still to be restored
+    private void select(int first, List<T> rows) {
+        if (reselect.isEmpty()) {
+            return;
+        }
+        ListSelectionModel selection = table.getSelectionModel();
+        restoring = true;
+        selection.setValueIsAdjusting(true);
+        for (int i = 0; i < rows.size() && first + i < rowCount; i++) {
+            if (reselect.remove(getId(rows.get(i)))) {
+                int viewRow = table.convertRowIndexToView(first + i);
+                selection.addSelectionInterval(viewRow, viewRow);
+            }
+        }
+        selection.setValueIsAdjusting(false);
+        restoring = false;
+    }
+}
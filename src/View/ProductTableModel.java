@@ -0,0 +1,46 @@
+package View;
+
+import Model.Product;
+import java.util.Arrays;
+
+// Product rows for MgmtProduct: Name, Stock, Price
+public class ProductTableModel extends ColumnarTableModel<Product> {
+
+    private String[] names = new String[0];
+    private int[] stocks = new int[0];
+    private float[] prices = new float[0];
+
+    public ProductTableModel() {
+        super("Name", "Stock", "Price");
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        checkRow(row);
+        switch (column) {
+            case 0: return names[row];
+            case 1: return stocks[row];
+            case 2: return prices[row];
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+
+    @Override
+    protected int getId(Product row) {
+        return row.getId();
+    }
+
+    @Override
+    protected void set(int row, Product value) {
+        names[row] = value.getName();
+        stocks[row] = value.getStock();
+        prices[row] = value.getPrice();
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        stocks = Arrays.copyOf(stocks, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+    }
+}
@@ -2,6 +2,7 @@ package View;
 
 import Controller.Main;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 public class Register extends javax.swing.JPanel {
 
@@ -135,15 +136,20 @@ public class Register extends javax.swing.JPanel {
             return;
         }
 
-        // Attempt to add the user to the database
-        try {
-            frame.main.sqlite.addUser(username, password, 2); // Default role code for registered users is 2 (Client)
-            JOptionPane.showMessageDialog(this, "Registration successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            frame.loginNav(); // Navigate to the login page after successful registration
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error: Registration failed. Please try again.", "Database Error", JOptionPane.ERROR_MESSAGE);
-            System.out.println(ex.getMessage());
-        }
+        // Attempt to add the user to the database; hashing and the insert run on the worker pool
+        // (after startup has prepared the database), the outcome is shown back on the EDT
+        registerBtn.setEnabled(false);
+        frame.main.registerAsync(username, password, 2).whenComplete((done, error) -> // Default role code for registered users is 2 (Client)
+            SwingUtilities.invokeLater(() -> {
+                registerBtn.setEnabled(true);
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this, "Error: Registration failed. Please try again.", "Database Error", JOptionPane.ERROR_MESSAGE);
+                    System.out.println(error.getMessage());
+                } else {
+                    JOptionPane.showMessageDialog(this, "Registration successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    frame.loginNav(); // Navigate to the login page after successful registration
+                }
+            }));
     }                                           
 
     private void backBtnActionPerformed(java.awt.event.ActionEvent evt) {                                        
@@ -0,0 +1,58 @@
+package View;
+
+import java.awt.Color;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// What a role code (users.role) gets in the home shell: welcome text, colour and management panels
+public enum Role {
+
+    ADMIN(5, "WELCOME ADMIN!", new Color(51, 153, 255), EnumSet.allOf(Panel.class)),
+    MANAGER(4, "WELCOME MANAGER!", new Color(153, 102, 255), EnumSet.allOf(Panel.class)),
+    STAFF(3, "WELCOME STAFF!", new Color(0, 204, 102), EnumSet.allOf(Panel.class)),
+    CLIENT(2, "WELCOME CLIENT!", new Color(255, 102, 51), EnumSet.allOf(Panel.class));
+
+    // Management panels the home shell can offer
+    public enum Panel {
+        USERS, PRODUCTS, HISTORY, LOGS
+    }
+
+    private final int code;
+    private final String welcome;
+    private final Color color;
+    private final Set<Panel> panels;
+
+    Role(int code, String welcome, Color color, Set<Panel> panels) {
+        this.code = code;
+        this.welcome = welcome;
+        this.color = color;
+        this.panels = Collections.unmodifiableSet(panels);
+    }
+
+    // Role for a users.role code, or null if that code has no home
+    public static Role of(int code) {
+        for (Role role : values()) {
+            if (role.code == code) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getWelcome() {
+        return welcome;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public boolean can(Panel panel) {
+        return panels.contains(panel);
+    }
+}
@@ -4,57 +4,94 @@
  * and open the template in the editor.
  */
 package View;
-//[255,102,51]
+
 import Controller.SQLite;
-import Model.History;
-import Model.Logs;
-import Model.Product;
-import Model.User;
 import java.awt.CardLayout;
 import java.awt.Color;
-import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
 
 /**
  *
  * @author BeepXD
  */
-public class AdminHome extends javax.swing.JPanel {
+// Home shell shared by every role, see Role. The management panels are built once and
+// reused (with their loaded tables) whichever role logs in.
+public class RoleHome extends javax.swing.JPanel {
 
     public MgmtHistory mgmtHistory;
     public MgmtLogs mgmtLogs;
     public MgmtProduct mgmtProduct;
     public MgmtUser mgmtUser;
     
+    private SQLite sqlite;
+    private Home home;
     private CardLayout contentView = new CardLayout();
     
-    public AdminHome() {
+    public RoleHome() {
         initComponents();
     }
     
     public void init(SQLite sqlite){
-        mgmtHistory = new MgmtHistory(sqlite);
-        mgmtLogs = new MgmtLogs(sqlite);
-        mgmtProduct = new MgmtProduct(sqlite);
-        mgmtUser = new MgmtUser(sqlite);
+        this.sqlite = sqlite;
         
+        home = new Home("WELCOME USER!", getBackground());
         Content.setLayout(contentView);
-        Content.add(new Home("WELCOME ADMIN!", new java.awt.Color(51, 153, 255)), "home");
-        Content.add(this.mgmtUser, "mgmtUser");
-        Content.add(this.mgmtHistory, "mgmtHistory");
-        Content.add(this.mgmtProduct, "mgmtProduct");
-        Content.add(this.mgmtLogs, "mgmtLogs");
+        Content.add(home, "home");
+    }
+    
+    // Dress the shell for a role and go back to its welcome page
+    public void setRole(Role role){
+        setBackground(role.getColor());
+        Content.setBackground(role.getColor());
+        home.setWelcome(role.getWelcome(), role.getColor());
+        
+        usersBtn.setVisible(role.can(Role.Panel.USERS));
+        productsBtn.setVisible(role.can(Role.Panel.PRODUCTS));
+        historyBtn.setVisible(role.can(Role.Panel.HISTORY));
+        logsBtn.setVisible(role.can(Role.Panel.LOGS));
         
-//        UNCOMMENT TO DISABLE BUTTONS
-//        historyBtn.setVisible(false);
-//        usersBtn.setVisible(false);
-//        productsBtn.setVisible(false);
-//        logsBtn.setVisible(false);
+        usersBtn.setForeground(Color.black);
+        productsBtn.setForeground(Color.black);
+        historyBtn.setForeground(Color.black);
+        logsBtn.setForeground(Color.black);
+        showPnl("home");
     }
     
     public void showPnl(String panelName){
         contentView.show(Content, panelName);
     }
+    
+    // Management panels are built the first time they are opened
+    private MgmtHistory mgmtHistory(){
+        if (mgmtHistory == null) {
+            mgmtHistory = new MgmtHistory(sqlite);
+            Content.add(mgmtHistory, "mgmtHistory");
+        }
+        return mgmtHistory;
+    }
+    
+    private MgmtLogs mgmtLogs(){
+        if (mgmtLogs == null) {
+            mgmtLogs = new MgmtLogs(sqlite);
+            Content.add(mgmtLogs, "mgmtLogs");
+        }
+        return mgmtLogs;
+    }
+    
+    private MgmtProduct mgmtProduct(){
+        if (mgmtProduct == null) {
+            mgmtProduct = new MgmtProduct(sqlite);
+            Content.add(mgmtProduct, "mgmtProduct");
+        }
+        return mgmtProduct;
+    }
+    
+    private MgmtUser mgmtUser(){
+        if (mgmtUser == null) {
+            mgmtUser = new MgmtUser(sqlite);
+            Content.add(mgmtUser, "mgmtUser");
+        }
+        return mgmtUser;
+    }
 
     /**
      * This method is called from within the constructor to initialize the form.
@@ -156,7 +193,7 @@ public class AdminHome extends javax.swing.JPanel {
     }// </editor-fold>//GEN-END:initComponents
 
     private void usersBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_usersBtnActionPerformed
-        mgmtUser.init();
+        mgmtUser().init();
         usersBtn.setForeground(Color.red);
         productsBtn.setForeground(Color.black);
         historyBtn.setForeground(Color.black);
@@ -165,7 +202,7 @@ public class AdminHome extends javax.swing.JPanel {
     }//GEN-LAST:event_usersBtnActionPerformed
 
     private void productsBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_productsBtnActionPerformed
-        mgmtProduct.init();
+        mgmtProduct().init();
         usersBtn.setForeground(Color.black);
         productsBtn.setForeground(Color.red);
         historyBtn.setForeground(Color.black);
@@ -174,7 +211,7 @@ public class AdminHome extends javax.swing.JPanel {
     }//GEN-LAST:event_productsBtnActionPerformed
 
     private void historyBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_historyBtnActionPerformed
-        mgmtHistory.init();
+        mgmtHistory().init();
         usersBtn.setForeground(Color.black);
         productsBtn.setForeground(Color.black);
         historyBtn.setForeground(Color.red);
@@ -183,7 +220,7 @@ public class AdminHome extends javax.swing.JPanel {
     }//GEN-LAST:event_historyBtnActionPerformed
 
     private void logsBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_logsBtnActionPerformed
-        mgmtLogs.init();
+        mgmtLogs().init();
         usersBtn.setForeground(Color.black);
         productsBtn.setForeground(Color.black);
         historyBtn.setForeground(Color.black);
@@ -0,0 +1,61 @@
+package View;
+
+import java.util.function.Consumer;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+// Search-as-you-type for a text field. Every edit calls onEdit right away, so the search in flight
+// can be cancelled, and restarts a DELAY_MILLIS timer; the search only runs once the user stops
+// typing for that long, or at once on Enter. Both run on the EDT.
+public class SearchDebouncer implements DocumentListener {
+
+    public static final int DELAY_MILLIS = 250;
+
+    private final JTextField field;
+    private final Runnable onEdit;
+    private final Consumer<String> search;
+    private final Timer timer;
+
+    private SearchDebouncer(JTextField field, Runnable onEdit, Consumer<String> search) {
+        this.field = field;
+        this.onEdit = onEdit;
+        this.search = search;
+        this.timer = new Timer(DELAY_MILLIS, evt -> fire());
+        timer.setRepeats(false);
+    }
+
+    // Search field's trimmed text with search whenever it settles
+    public static SearchDebouncer attach(JTextField field, Runnable onEdit, Consumer<String> search) {
+        SearchDebouncer debouncer = new SearchDebouncer(field, onEdit, search);
+        field.getDocument().addDocumentListener(debouncer);
+        field.addActionListener(evt -> debouncer.fire());
+        return debouncer;
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent evt) {
+        edited();
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent evt) {
+        edited();
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent evt) {
+        // Attribute changes only, the text is the same
+    }
+
+    private void edited() {
+        onEdit.run();
+        timer.restart();
+    }
+
+    private void fire() {
+        timer.stop();
+        search.accept(field.getText().trim());
+    }
+}
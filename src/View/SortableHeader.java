@@ -0,0 +1,95 @@
+package View;
+
+import Controller.Sort;
+import java.awt.Component;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.Consumer;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableCellRenderer;
+
+// Column-header sorting done by the database instead of a TableRowSorter. Clicking a sortable column
+// sorts by it ascending, again descending, a third time back to the default order. Each click hands
+// the new Sort to reload, which queries the rows again in that order (see SQLite.orderBy()), so the
+// table never sorts rows in memory. The sorted column shows the look and feel's sort arrow.
+public class SortableHeader {
+
+    private final JTable table;
+    private final String[] columns;
+    private final Consumer<Sort> reload;
+    private int sortedColumn = -1;
+    private boolean descending = false;
+
+    private SortableHeader(JTable table, String[] columns, Consumer<Sort> reload) {
+        this.table = table;
+        this.columns = columns;
+        this.reload = reload;
+    }
+
+    // columns holds the database column of each model column, null for those that cannot be sorted
+    public static SortableHeader install(JTable table, Consumer<Sort> reload, String... columns) {
+        SortableHeader sortable = new SortableHeader(table, columns, reload);
+        JTableHeader header = table.getTableHeader();
+        header.setDefaultRenderer(sortable.new Renderer(header.getDefaultRenderer()));
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent evt) {
+                if (SwingUtilities.isLeftMouseButton(evt)) {
+                    int column = header.columnAtPoint(evt.getPoint());
+                    if (column >= 0) {
+                        sortable.toggle(table.convertColumnIndexToModel(column));
+                    }
+                }
+            }
+        });
+        return sortable;
+    }
+
+    public Sort getSort() {
+        return sortedColumn < 0 ? Sort.DEFAULT : new Sort(columns[sortedColumn], descending);
+    }
+
+    private void toggle(int column) {
+        if (column >= columns.length || columns[column] == null) {
+            return;
+        }
+        if (column != sortedColumn) {
+            sortedColumn = column;
+            descending = false;
+        } else if (!descending) {
+            descending = true;
+        } else {
+            sortedColumn = -1;
+        }
+        table.getTableHeader().repaint();
+        reload.accept(getSort());
+    }
+
+    // Header renderer of the look and feel plus the sort arrow
+    private class Renderer implements TableCellRenderer {
+
+        private final TableCellRenderer base;
+
+        Renderer(TableCellRenderer base) {
+            this.base = base;
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                boolean hasFocus, int row, int column) {
+            Component component = base.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (component instanceof JLabel) {
+                JLabel label = (JLabel) component;
+                boolean sorted = table != null && table.convertColumnIndexToModel(column) == sortedColumn;
+                label.setIcon(sorted ? UIManager.getIcon(descending ? "Table.descendingSortIcon" : "Table.ascendingSortIcon") : null);
+                label.setHorizontalTextPosition(SwingConstants.LEADING);
+            }
+            return component;
+        }
+    }
+}
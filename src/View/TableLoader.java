@@ -0,0 +1,138 @@
+package View;
+
+import Controller.Cancellation;
+import java.awt.Cursor;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.swing.BorderFactory;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.border.Border;
+import javax.swing.border.TitledBorder;
+
+// Fills a management table off the EDT. Rows are read from a database stream on a worker thread
+// and handed to the table in chunks, so the first rows show up while the rest are still loading.
+// While it runs the scroll pane shows a "LOADING..." caption with the row count. The load is
+// cancelled when its table is hidden (the user navigated away) or when another load replaces it,
+// which also aborts the database query if it is still running.
+public class TableLoader<T> extends SwingWorker<Integer, T> {
+
+    private final ColumnarTableModel<T> model;
+    private final JTable table;
+    private final JScrollPane scrollPane;
+    private final Supplier<Stream<T>> rows;
+    private final HierarchyListener hiddenListener = this::cancelWhenHidden;
+    private final Cancellation cancellation = new Cancellation();
+
+    private Border border;
+    private Set<Integer> selected;
+    private int loaded = 0;
+
+    private TableLoader(ColumnarTableModel<T> model, JTable table, JScrollPane scrollPane, Supplier<Stream<T>> rows) {
+        this.model = model;
+        this.table = table;
+        this.scrollPane = scrollPane;
+        this.rows = rows;
+    }
+
+    // Cancel the previous load of this table (may be null) and start a new one, call on the EDT
+    public static <T> TableLoader<T> load(TableLoader<?> previous, ColumnarTableModel<T> model, JTable table,
+            JScrollPane scrollPane, Supplier<Stream<T>> rows) {
+        if (previous != null) {
+            previous.stop();
+            previous.finish(); // Put back its caption now, before this load saves the border
+        }
+        TableLoader<T> loader = new TableLoader<>(model, table, scrollPane, rows);
+        loader.start();
+        return loader;
+    }
+
+    private void start() {
+        table.putClientProperty(TableLoader.class, this);
+        selected = model.getSelectedIds(table);
+        model.clear();
+
+        border = scrollPane.getBorder();
+        scrollPane.setBorder(BorderFactory.createTitledBorder(border, "LOADING...",
+                TitledBorder.CENTER, TitledBorder.BOTTOM));
+        table.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        table.addHierarchyListener(hiddenListener);
+        execute();
+    }
+
+    // Cancel the load and its query, the rows loaded so far stay in the table
+    public void stop() {
+        cancel(false);
+        cancellation.cancel();
+    }
+
+    @Override
+    protected Integer doInBackground() {
+        return cancellation.run(() -> {
+            int count = 0;
+            try (Stream<T> stream = rows.get()) {
+                Iterator<T> iterator = stream.iterator();
+                while (!isCancelled() && iterator.hasNext()) {
+                    publish(iterator.next()); // SwingWorker coalesces these into chunks for process()
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    @Override
+    protected void process(List<T> chunk) {
+        if (!isCurrent()) {
+            return;
+        }
+        int from = model.getRowCount();
+        model.addAll(chunk);
+        model.select(table, selected, from, model.getRowCount());
+        loaded += chunk.size();
+        ((TitledBorder) scrollPane.getBorder()).setTitle("LOADING... " + loaded + " ROWS");
+        scrollPane.repaint();
+    }
+
+    @Override
+    protected void done() {
+        finish();
+        try {
+            get();
+        } catch (CancellationException ex) {
+            // Navigated away or replaced by a newer load
+        } catch (InterruptedException | ExecutionException ex) {
+            System.out.println("Error: Unable to load table. " + ex.getCause());
+        }
+    }
+
+    // Remove the loading indicator, once
+    private void finish() {
+        table.removeHierarchyListener(hiddenListener);
+        if (!isCurrent()) {
+            return;
+        }
+        table.putClientProperty(TableLoader.class, null);
+        scrollPane.setBorder(border);
+        table.setCursor(null);
+    }
+
+    // False once a newer load has taken over the table
+    private boolean isCurrent() {
+        return table.getClientProperty(TableLoader.class) == this;
+    }
+
+    private void cancelWhenHidden(HierarchyEvent evt) {
+        if ((evt.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && !table.isShowing()) {
+            stop();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package View;
+
+import Model.User;
+import java.util.Arrays;
+
+// User rows for MgmtUser: Username, Password, Role, Locked
+public class UserTableModel extends ColumnarTableModel<User> {
+
+    private String[] usernames = new String[0];
+    private String[] passwords = new String[0];
+    private int[] roles = new int[0];
+    private int[] locked = new int[0];
+
+    public UserTableModel() {
+        super("Username", "Password", "Role", "Locked");
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        checkRow(row);
+        switch (column) {
+            case 0: return usernames[row];
+            case 1: return passwords[row];
+            case 2: return roles[row];
+            case 3: return locked[row];
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+
+    @Override
+    protected int getId(User row) {
+        return row.getId();
+    }
+
+    @Override
+    protected void set(int row, User value) {
+        usernames[row] = value.getUsername();
+        passwords[row] = value.getPassword();
+        roles[row] = value.getRole();
+        locked[row] = value.getLocked();
+    }
+
+    @Override
+    protected void resize(int capacity) {
+        usernames = Arrays.copyOf(usernames, capacity);
+        passwords = Arrays.copyOf(passwords, capacity);
+        roles = Arrays.copyOf(roles, capacity);
+        locked = Arrays.copyOf(locked, capacity);
+    }
+}